@@ -0,0 +1,157 @@
+package com.tracing;
+
+import com.tracing.model.output.QueryResult;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The {@code AsyncSink} class represents a sink which hands the results to a
+ * writer thread through a bounded queue, so the query threads do not wait for
+ * the output. When the queue is full a query thread waits for the writer,
+ * which keeps the results in flight bounded however slow the output is. The
+ * writer drains the queue in batches into the wrapped sink. A failure of the
+ * wrapped sink, checked or not, is thrown to the next write, or to close, as an
+ * {@code IOException}. A result is either queued before close or rejected, as
+ * writes share a lock which close takes exclusively.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+public final class AsyncSink implements ResultSink {
+	private static final QueryResult END = QueryResult.builder().build();
+	private static final int BATCH_SIZE = 1024;
+	private final ResultSink sink;
+	private final BlockingQueue<QueryResult> queue;
+	private final Thread writer;
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private volatile IOException failure;
+	private boolean closed;
+
+	/**
+	 * Initializes a sink writing to the given sink on its own thread.
+	 *
+	 * @param sink     sink written by the writer thread
+	 * @param capacity maximum number of results waiting for the writer
+	 */
+	public AsyncSink(ResultSink sink, int capacity) {
+		this.sink = sink;
+		this.queue = new ArrayBlockingQueue<>(capacity);
+		this.writer = new Thread(this::drain, "result-sink");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	@Override
+	public void write(QueryResult result) throws IOException {
+		lock.readLock().lock();
+		try {
+			if (closed) {
+				throw new IOException("The sink is closed");
+			}
+			if (failure != null) {
+				throw failure;
+			}
+			put(result);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Waits for the writer to write every queued result, then closes the wrapped
+	 * sink.
+	 */
+	@Override
+	public void close() throws IOException {
+		lock.writeLock().lock();
+		try {
+			if (closed) {
+				return;
+			}
+			closed = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+		put(END);
+		try {
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while closing the sink");
+		}
+		try {
+			sink.close();
+		} catch (IOException | RuntimeException e) {
+			fail(e);
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Queues a result, waiting while the queue is full.
+	 *
+	 * @param result result of a query
+	 * @throws IOException if the thread is interrupted while waiting
+	 */
+	private void put(QueryResult result) throws IOException {
+		try {
+			queue.put(result);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for the sink");
+		}
+	}
+
+	/**
+	 * Writes the queued results until the end of the results. After a failure,
+	 * or an interrupt, the results are dropped, so that the query threads never
+	 * wait for a writer which has stopped.
+	 */
+	private void drain() {
+		List<QueryResult> batch = new ArrayList<>(BATCH_SIZE);
+		while (true) {
+			try {
+				batch.add(queue.take());
+			} catch (InterruptedException e) {
+				failure = new InterruptedIOException("The writer was interrupted");
+				continue;
+			}
+			queue.drainTo(batch, BATCH_SIZE - 1);
+			for (QueryResult result : batch) {
+				if (result == END) {
+					return;
+				}
+				if (failure == null) {
+					try {
+						sink.write(result);
+					} catch (IOException | RuntimeException e) {
+						fail(e);
+					}
+				}
+			}
+			batch.clear();
+		}
+	}
+
+	/**
+	 * Records the first failure of the wrapped sink.
+	 *
+	 * @param e failure
+	 */
+	private void fail(Exception e) {
+		if (failure == null) {
+			failure = e instanceof IOException ? (IOException) e : new IOException("The sink failed", e);
+		}
+	}
+}
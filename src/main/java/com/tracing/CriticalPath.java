@@ -0,0 +1,294 @@
+package com.tracing;
+
+import com.tracing.model.graph.Edge;
+import com.tracing.model.graph.Trace;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The {@code CriticalPath} class represents the slowest simple traces from a
+ * source vertex {@code src} to every vertex of an edge-weighted graph, the
+ * critical path of a dependency chain starting at an entry service.
+ * <p>
+ * The graph is condensed into its {@link StronglyConnectedComponents}, and the
+ * components are visited once in topological order: a trace enters a component
+ * with the slowest latency of the edges reaching it from the components before,
+ * moves inside the component and leaves it along the edges to the components
+ * after. Between components the search is a longest path on a directed acyclic
+ * graph, linear in the size of the graph. Inside a component the cycles are
+ * unrolled by a depth first enumeration of the simple traces of at most
+ * {@code maxHops} hops from every vertex the component is entered at, which is
+ * exponential in {@code maxHops}, so the bound should stay small on graphs with
+ * large components. The enumeration keeps its own stack, and the traces share
+ * their hops, so a long trace costs memory in proportion to its hops. The
+ * traces are exact when every component has at most {@code maxHops + 1}
+ * vertices, and in particular for an acyclic graph whatever the bound;
+ * otherwise they are the slowest traces spending at most {@code maxHops} hops
+ * in any one component. The searches run on the internal ids of the backend,
+ * and the vertices are only translated by the accessors.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+public final class CriticalPath {
+	private final Graph graph;
+	private final GraphBackend backend;
+	private final int src;
+	private final int maxHops;
+	private final int[] id;
+	private final long[] entryTo;
+	private final int[] edgeTo;
+	private final long[] latencyTo;
+	private final Hop[] segmentTo;
+	private final boolean[] onTrace;
+	private final Hop[] trace;
+	private final List<Iterator<Edge>> edges = new ArrayList<>();
+	private final long[] latencies;
+
+	/**
+	 * Computes the slowest traces from the source vertex {@code src} in the graph
+	 * {@code G}.
+	 *
+	 * @param graph   graph
+	 * @param src     source vertex
+	 * @param maxHops maximum number of hops inside one strongly connected
+	 *                component, {@code Integer.MAX_VALUE} for any
+	 */
+	public CriticalPath(Graph graph, int src, int maxHops) {
+		if (src < 0 || src >= graph.getNumOfVertices()) {
+			throw new IllegalArgumentException("Source " + src + " is not a vertex of the graph");
+		}
+		this.graph = graph;
+		this.backend = graph.getBackend();
+		this.src = graph.toInternal(src);
+		int n = backend.capacity();
+		StronglyConnectedComponents scc = new StronglyConnectedComponents(backend);
+		int largest = 0;
+		for (int c = 0; c < scc.count(); c++) {
+			largest = Math.max(largest, scc.size(c));
+		}
+		this.maxHops = Math.max(Math.min(maxHops, largest - 1), 0);
+		id = new int[n];
+		int[] offsets = new int[scc.count() + 1];
+		for (int v = 0; v < n; v++) {
+			id[v] = scc.id(v);
+			offsets[id[v] + 1]++;
+		}
+		for (int c = 0; c < scc.count(); c++) {
+			offsets[c + 1] += offsets[c];
+		}
+		int[] members = new int[n];
+		int[] next = Arrays.copyOf(offsets, scc.count());
+		for (int v = 0; v < n; v++) {
+			members[next[id[v]]++] = v;
+		}
+
+		entryTo = new long[n];
+		edgeTo = new int[n];
+		latencyTo = new long[n];
+		segmentTo = new Hop[n];
+		onTrace = new boolean[n];
+		trace = new Hop[this.maxHops + 1];
+		latencies = new long[this.maxHops + 1];
+		Arrays.fill(entryTo, -1);
+		Arrays.fill(latencyTo, -1);
+		Arrays.fill(edgeTo, -1);
+		entryTo[this.src] = 0;
+		for (int c = id[this.src]; c < scc.count(); c++) {
+			for (int k = offsets[c]; k < offsets[c + 1]; k++) {
+				int v = members[k];
+				if (entryTo[v] > latencyTo[v]) {
+					latencyTo[v] = entryTo[v];
+					segmentTo[v] = new Hop(v, 0, 0, null);
+				}
+				if (entryTo[v] >= 0 && scc.size(c) > 1) {
+					unroll(v, c);
+				}
+			}
+			for (int k = offsets[c]; k < offsets[c + 1]; k++) {
+				int v = members[k];
+				if (latencyTo[v] < 0) {
+					continue;
+				}
+				for (Edge e : backend.adj(v)) {
+					int w = e.to();
+					if (id[w] != c && latencyTo[v] + e.weight() > entryTo[w]) {
+						entryTo[w] = latencyTo[v] + e.weight();
+						edgeTo[w] = v;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Enumerates the simple traces inside component {@code c} from the entry
+	 * vertex {@code v}, recording the slowest trace to every vertex they reach.
+	 * The trace being extended is kept on an explicit stack, one level per hop.
+	 *
+	 * @param v internal id of the entry vertex
+	 * @param c component of the entry vertex
+	 */
+	private void unroll(int v, int c) {
+		int hops = 0;
+		trace[0] = new Hop(v, 0, 0, null);
+		edges.add(backend.adj(v).iterator());
+		latencies[0] = entryTo[v];
+		onTrace[v] = true;
+		while (hops >= 0) {
+			if (hops == maxHops || !edges.get(hops).hasNext()) {
+				edges.remove(hops);
+				onTrace[trace[hops--].vertex] = false;
+				continue;
+			}
+			Edge e = edges.get(hops).next();
+			int w = e.to();
+			if (id[w] != c || onTrace[w]) {
+				continue;
+			}
+			Hop hop = new Hop(w, e.weight(), hops + 1, trace[hops]);
+			long latency = latencies[hops] + e.weight();
+			if (latency > latencyTo[w]) {
+				latencyTo[w] = latency;
+				segmentTo[w] = hop;
+			}
+			hops++;
+			trace[hops] = hop;
+			edges.add(backend.adj(w).iterator());
+			latencies[hops] = latency;
+			onTrace[w] = true;
+		}
+	}
+
+	/**
+	 * Returns the source vertex.
+	 *
+	 * @return source vertex
+	 */
+	public int source() {
+		return graph.toExternal(src);
+	}
+
+	/**
+	 * Returns if there is a trace from the source vertex to vertex {@code v}. The
+	 * source vertex has the trace of no hops.
+	 *
+	 * @param v vertex
+	 * @return trace exists as a boolean
+	 */
+	public boolean hasTraceTo(int v) {
+		return latencyTo[graph.toInternal(v)] >= 0;
+	}
+
+	/**
+	 * Returns the latency of the slowest trace from the source vertex to vertex
+	 * {@code v}.
+	 *
+	 * @param v vertex
+	 * @return latency of the slowest trace, 0 if there is no trace
+	 */
+	public long latencyTo(int v) {
+		return Math.max(latencyTo[graph.toInternal(v)], 0);
+	}
+
+	/**
+	 * Returns the slowest trace from the source vertex to vertex {@code v}, with
+	 * the latency of every hop.
+	 *
+	 * @param v vertex
+	 * @return slowest trace, {@code null} if there is no trace
+	 */
+	public Trace traceTo(int v) {
+		if (!hasTraceTo(v)) {
+			return null;
+		}
+		v = graph.toInternal(v);
+		int hops = 0;
+		for (Hop hop = segmentTo[v];; hop = segmentTo[edgeTo[entry(hop)]]) {
+			hops += hop.hops;
+			if (entry(hop) == src) {
+				break;
+			}
+			hops++;
+		}
+		int[] traceVerts = new int[hops + 1];
+		int[] traceLatencies = new int[hops];
+		int end = hops;
+		for (Hop hop = segmentTo[v];;) {
+			for (; hop.prev != null; hop = hop.prev) {
+				traceVerts[end] = graph.toExternal(hop.vertex);
+				traceLatencies[--end] = hop.latency;
+			}
+			traceVerts[end] = graph.toExternal(hop.vertex);
+			if (hop.vertex == src) {
+				break;
+			}
+			int from = edgeTo[hop.vertex];
+			traceLatencies[--end] = (int) (entryTo[hop.vertex] - latencyTo[from]);
+			hop = segmentTo[from];
+		}
+		return new Trace(traceVerts, traceLatencies);
+	}
+
+	/**
+	 * Returns the critical path, the slowest trace from the source vertex to any
+	 * vertex.
+	 *
+	 * @return critical path, the trace of no hops if the source vertex has no
+	 *         edges
+	 */
+	public Trace critical() {
+		int slowest = source();
+		for (int v = 0; v < latencyTo.length; v++) {
+			if (latencyTo[graph.toInternal(v)] > latencyTo[graph.toInternal(slowest)]) {
+				slowest = v;
+			}
+		}
+		return traceTo(slowest);
+	}
+
+	/**
+	 * Returns the vertex a trace entered the component of its last hop at.
+	 *
+	 * @param hop last hop of the trace inside a component
+	 * @return entry vertex
+	 */
+	private static int entry(Hop hop) {
+		while (hop.prev != null) {
+			hop = hop.prev;
+		}
+		return hop.vertex;
+	}
+
+	/**
+	 * The {@code Hop} class represents the last hop of a trace inside a
+	 * component, linked to the hops before it back to the entry vertex, so that
+	 * the traces extending one another share their hops.
+	 */
+	private static final class Hop {
+		private final int vertex;
+		private final int latency;
+		private final int hops;
+		private final Hop prev;
+
+		/**
+		 * Initializes a hop to a vertex.
+		 *
+		 * @param vertex  vertex reached
+		 * @param latency latency of the hop
+		 * @param hops    number of hops from the entry vertex
+		 * @param prev    hop before, {@code null} at the entry vertex
+		 */
+		private Hop(int vertex, int latency, int hops, Hop prev) {
+			this.vertex = vertex;
+			this.latency = latency;
+			this.hops = hops;
+			this.prev = prev;
+		}
+	}
+}
@@ -0,0 +1,218 @@
+package com.tracing;
+
+import com.tracing.model.graph.Edge;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * The {@code CsrBackend} class represents the storage of the edges of an
+ * edge-weighted graph in compressed sparse row form. The adjacency and the
+ * reverse adjacency are held in buffers of ints: the edges from vertex
+ * {@code v} are the entries from {@code offsets[v]} up to
+ * {@code offsets[v + 1]} of the neighbour and weight buffers, sorted by
+ * neighbour so that a weight is found by binary search. The buffers either
+ * wrap arrays on the Java heap or are direct buffers outside it; with direct
+ * buffers only the buffer objects live on the heap, so the garbage collector
+ * never scans or copies the edges, and the memory is released when the
+ * storage becomes unreachable. A buffer holds at most
+ * {@code Integer.MAX_VALUE / 4} entries.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+class CsrBackend implements GraphBackend {
+	private final int capacity;
+	private final boolean direct;
+	private final IntBuffer offsets;
+	private final IntBuffer heads;
+	private final IntBuffer weights;
+	private final IntBuffer offsetsR;
+	private final IntBuffer tails;
+	private final IntBuffer weightsR;
+
+	/**
+	 * Initializes the storage with given edges.
+	 *
+	 * @param edges    edges
+	 * @param capacity number of vertex ids
+	 * @param direct   store the edges outside the Java heap
+	 */
+	CsrBackend(List<Edge> edges, int capacity, boolean direct) {
+		this.capacity = capacity;
+		this.direct = direct;
+		offsets = allocate(capacity + 1);
+		heads = allocate(edges.size());
+		weights = allocate(edges.size());
+		offsetsR = allocate(capacity + 1);
+		tails = allocate(edges.size());
+		weightsR = allocate(edges.size());
+		fill(edges, false, offsets, heads, weights);
+		fill(edges, true, offsetsR, tails, weightsR);
+	}
+
+	/**
+	 * Allocates a buffer of ints, direct in native byte order or wrapping an
+	 * array.
+	 *
+	 * @param size number of ints
+	 * @return buffer
+	 */
+	private IntBuffer allocate(int size) {
+		if (!direct) {
+			return IntBuffer.wrap(new int[size]);
+		}
+		return ByteBuffer.allocateDirect(size * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+	}
+
+	/**
+	 * Fills the buffers of one direction by distributing the edges to the rows of
+	 * their tail vertices and sorting every row by neighbour.
+	 *
+	 * @param edges      edges
+	 * @param reverse    fill the reverse adjacency
+	 * @param offsets    row offsets
+	 * @param neighbours neighbours
+	 * @param weights    weights
+	 */
+	private void fill(List<Edge> edges, boolean reverse, IntBuffer offsets, IntBuffer neighbours, IntBuffer weights) {
+		for (Edge e : edges) {
+			int v = reverse ? e.to() : e.from();
+			offsets.put(v + 1, offsets.get(v + 1) + 1);
+		}
+		for (int v = 0; v < capacity; v++) {
+			offsets.put(v + 1, offsets.get(v + 1) + offsets.get(v));
+		}
+		for (Edge e : edges) {
+			int v = reverse ? e.to() : e.from();
+			int w = reverse ? e.from() : e.to();
+			int i = offsets.get(v);
+			neighbours.put(i, w);
+			weights.put(i, e.weight());
+			offsets.put(v, i + 1);
+		}
+		for (int v = capacity; v > 0; v--) {
+			offsets.put(v, offsets.get(v - 1));
+		}
+		offsets.put(0, 0);
+		for (int v = 0; v < capacity; v++) {
+			int from = offsets.get(v), to = offsets.get(v + 1);
+			long[] row = new long[to - from];
+			for (int i = from; i < to; i++) {
+				row[i - from] = (long) neighbours.get(i) << 32 | (weights.get(i) & 0xffffffffL);
+			}
+			Arrays.sort(row);
+			for (int i = from; i < to; i++) {
+				neighbours.put(i, (int) (row[i - from] >>> 32));
+				weights.put(i, (int) row[i - from]);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of bytes of the buffers of both directions: the
+	 * offsets, the neighbours and the weights.
+	 *
+	 * @param capacity   number of vertex ids
+	 * @param numOfEdges number of edges
+	 * @return number of bytes
+	 */
+	static long sizeInBytes(int capacity, long numOfEdges) {
+		return (2L * (capacity + 1) + 4L * numOfEdges) * Integer.BYTES;
+	}
+
+	@Override
+	public Type type() {
+		return direct ? Type.OFF_HEAP : Type.CSR;
+	}
+
+	@Override
+	public int capacity() {
+		return capacity;
+	}
+
+	@Override
+	public int numOfEdges() {
+		return heads.capacity();
+	}
+
+	@Override
+	public Iterable<Edge> adj(int v) {
+		return () -> new RowIterator(v, offsets, heads, weights);
+	}
+
+	@Override
+	public Iterable<Edge> adjR(int v) {
+		return () -> new RowIterator(v, offsetsR, tails, weightsR);
+	}
+
+	@Override
+	public int weight(int v, int w) {
+		if (v >= capacity) {
+			return 0;
+		}
+		int lo = offsets.get(v), hi = offsets.get(v + 1) - 1;
+		while (lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			int head = heads.get(mid);
+			if (head < w) {
+				lo = mid + 1;
+			} else if (head > w) {
+				hi = mid - 1;
+			} else {
+				return weights.get(mid);
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * The class {@code RowIterator} iterates over the edges of one row of the
+	 * buffers.
+	 */
+	private final class RowIterator implements Iterator<Edge> {
+		private final int v;
+		private final IntBuffer neighbours;
+		private final IntBuffer weights;
+		private final int end;
+		private int i;
+
+		/**
+		 * Initializes an iterator over the row of vertex {@code v}.
+		 *
+		 * @param v          vertex
+		 * @param offsets    row offsets
+		 * @param neighbours neighbours
+		 * @param weights    weights
+		 */
+		RowIterator(int v, IntBuffer offsets, IntBuffer neighbours, IntBuffer weights) {
+			this.v = v;
+			this.neighbours = neighbours;
+			this.weights = weights;
+			this.i = v < capacity ? offsets.get(v) : 0;
+			this.end = v < capacity ? offsets.get(v + 1) : 0;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return i < end;
+		}
+
+		@Override
+		public Edge next() {
+			if (i >= end) {
+				throw new NoSuchElementException();
+			}
+			Edge e = new Edge(v, neighbours.get(i), weights.get(i));
+			i++;
+			return e;
+		}
+	}
+}
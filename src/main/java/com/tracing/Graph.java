@@ -2,14 +2,24 @@ package com.tracing;
 
 import com.tracing.model.graph.Edge;
 import com.tracing.model.input.GraphInput;
+import lombok.Builder;
 import lombok.NonNull;
 
 import java.util.*;
 
 /**
  * The {@code Graph} class represents an edge-weighted graph with {@code V}
- * vertices. It supports both adjacency list and adjacency matrix
- * representation.
+ * vertices. The edges are kept in a {@link GraphBackend} which is chosen from
+ * the number of vertices and the edge density unless one is given: small or
+ * dense graphs use adjacency list and adjacency matrix representation, sparse
+ * graphs use compressed sparse rows, and graphs whose rows would not fit
+ * comfortably in the heap keep them outside it. The vertices can be relabeled
+ * by a {@link VertexOrdering} so that traversals of the backend touch nearby
+ * memory; the relabeling is internal and every method takes and returns the
+ * original vertex ids. The query algorithms read the backend directly under
+ * the internal ids and translate only their inputs and results, since
+ * translating every edge read through {@link #adj(int)} costs more than the
+ * locality gains.
  *
  * @author Melwin Mathew
  * @version 1.0
@@ -17,12 +27,16 @@ import java.util.*;
  */
 
 public class Graph {
-	private final static int MAX_ALPHA = 26;
-	private final List<List<Edge>> adj = new ArrayList<>(MAX_ALPHA);
-	private final List<List<Edge>> adjR = new ArrayList<>(MAX_ALPHA);
-	private final int[][] adjM = new int[MAX_ALPHA][MAX_ALPHA];
-	private final Map<Integer, Boolean[]> map = new HashMap<>();
+	private static final int MATRIX_MAX_VERTICES = 64;
+	private static final int DENSE_MAX_VERTICES = 2048;
+	private static final double DENSE_MIN_DENSITY = 0.25;
+	private static final double OFF_HEAP_MIN_HEAP_FRACTION = 0.25;
+	private final GraphBackend backend;
+	private final int[] toInternal;
+	private final int[] toExternal;
+	private final Map<Integer, boolean[]> map = new HashMap<>();
 	private final int numOfVertices;
+	private final GraphStatistics statistics;
 
 	/**
 	 * Initializes an edge-weighted graph with given edges.
@@ -30,19 +44,127 @@ public class Graph {
 	 * @param graphInput graph with edges input
 	 */
 	public Graph(@NonNull GraphInput graphInput) {
-		for (int v = 0; v < MAX_ALPHA; v++) {
-			adj.add(v, new ArrayList<>());
-			adjR.add(v, new ArrayList<>());
+		this(graphInput, null, null);
+	}
+
+	/**
+	 * Initializes an edge-weighted graph with given edges kept in the given type
+	 * of backend under the given vertex ordering.
+	 *
+	 * @param graphInput graph with edges input
+	 * @param backend    type of backend, or null to choose it from the shape of
+	 *                   the graph
+	 * @param ordering   type of vertex ordering, or null to keep the vertex ids
+	 */
+	@Builder
+	public Graph(@NonNull GraphInput graphInput, GraphBackend.Type backend, VertexOrdering.Type ordering) {
+		List<Edge> edges = graphInput.getEdges();
+		int capacity = 0;
+		for (Edge e : edges) {
+			capacity = Math.max(capacity, Math.max(e.from(), e.to()) + 1);
+		}
+		boolean[] vertices = new boolean[capacity];
+		int count = 0;
+		for (Edge e : edges) {
+			if (!vertices[e.from()]) {
+				vertices[e.from()] = true;
+				count++;
+			}
+			if (!vertices[e.to()]) {
+				vertices[e.to()] = true;
+				count++;
+			}
+		}
+		numOfVertices = count;
+		statistics = new GraphStatistics(edges, capacity, count);
+
+		if (ordering != null && ordering != VertexOrdering.Type.NONE) {
+			toInternal = VertexOrdering.compute(ordering, edges, capacity);
+			toExternal = VertexOrdering.invert(toInternal);
+			List<Edge> relabeled = new ArrayList<>(edges.size());
+			for (Edge e : edges) {
+				relabeled.add(new Edge(toInternal[e.from()], toInternal[e.to()], e.weight()));
+			}
+			edges = relabeled;
+		} else {
+			toInternal = null;
+			toExternal = null;
+		}
+
+		switch (backend != null ? backend : selectBackend(capacity, edges.size())) {
+		case CSR:
+			this.backend = new CsrBackend(edges, capacity, false);
+			break;
+		case OFF_HEAP:
+			this.backend = new CsrBackend(edges, capacity, true);
+			break;
+		case COMPRESSED:
+			this.backend = new CompressedBackend(edges, capacity);
+			break;
+		default:
+			this.backend = new MatrixBackend(edges, capacity);
+		}
+	}
+
+	/**
+	 * Chooses the type of backend for a graph: the matrix for small graphs and
+	 * dense graphs of moderate size, otherwise compressed sparse rows, outside
+	 * the heap when they would take a large part of it.
+	 *
+	 * @param capacity   number of vertex ids
+	 * @param numOfEdges number of edges
+	 * @return type of backend
+	 */
+	static GraphBackend.Type selectBackend(int capacity, long numOfEdges) {
+		double density = capacity == 0 ? 0 : numOfEdges / ((double) capacity * capacity);
+		if (capacity <= MATRIX_MAX_VERTICES || (capacity <= DENSE_MAX_VERTICES && density >= DENSE_MIN_DENSITY)) {
+			return GraphBackend.Type.MATRIX;
 		}
-		Set<Integer> vertices = new HashSet<>();
-		for (Edge e : graphInput.getEdges()) {
-			vertices.add(e.from());
-			vertices.add(e.to());
-			adj.get(e.from()).add(e);
-			adjM[e.from()][e.to()] = e.weight();
-			adjR.get(e.to()).add(new Edge(e.to(), e.from(), e.weight()));
+		long csrBytes = CsrBackend.sizeInBytes(capacity, numOfEdges);
+		if (csrBytes > Runtime.getRuntime().maxMemory() * OFF_HEAP_MIN_HEAP_FRACTION) {
+			return GraphBackend.Type.OFF_HEAP;
 		}
-		numOfVertices = vertices.size();
+		return GraphBackend.Type.CSR;
+	}
+
+	/**
+	 * Returns the backend keeping the edges of the graph under the internal
+	 * vertex ids.
+	 *
+	 * @return backend
+	 */
+	public GraphBackend getBackend() {
+		return backend;
+	}
+
+	/**
+	 * Returns the internal id of vertex {@code v} in the backend.
+	 *
+	 * @param v vertex
+	 * @return internal id of vertex {@code v}
+	 */
+	public int toInternal(int v) {
+		return toInternal == null ? v : toInternal[v];
+	}
+
+	/**
+	 * Returns the vertex with internal id {@code i} in the backend.
+	 *
+	 * @param i internal id
+	 * @return vertex with internal id {@code i}
+	 */
+	public int toExternal(int i) {
+		return toExternal == null ? i : toExternal[i];
+	}
+
+	/**
+	 * Returns the edge of the backend {@code e} with the original vertex ids.
+	 *
+	 * @param e edge between internal ids
+	 * @return edge between the original vertex ids
+	 */
+	Edge toExternal(Edge e) {
+		return toExternal == null ? e : new Edge(toExternal[e.from()], toExternal[e.to()], e.weight());
 	}
 
 	/**
@@ -54,6 +176,15 @@ public class Graph {
 		return numOfVertices;
 	}
 
+	/**
+	 * Returns the statistics of the graph gathered when it was built.
+	 *
+	 * @return statistics of the graph
+	 */
+	public GraphStatistics getStatistics() {
+		return statistics;
+	}
+
 	/**
 	 * Returns the edges from vertex {@code v}.
 	 *
@@ -61,7 +192,49 @@ public class Graph {
 	 * @return edges from vertex {@code v} as an Iterable
 	 */
 	public Iterable<Edge> adj(int v) {
-		return adj.get(v);
+		if (toInternal == null) {
+			return backend.adj(v);
+		}
+		return relabel(v, backend.adj(toInternal[v]));
+	}
+
+	/**
+	 * Returns the edges to vertex {@code v} as edges from vertex {@code v} in the
+	 * reverse graph.
+	 *
+	 * @param v head vertex
+	 * @return reversed edges to vertex {@code v} as an Iterable
+	 */
+	public Iterable<Edge> adjR(int v) {
+		if (toInternal == null) {
+			return backend.adjR(v);
+		}
+		return relabel(v, backend.adjR(toInternal[v]));
+	}
+
+	/**
+	 * Returns the edges of the backend from the internal id of vertex {@code v}
+	 * with the original vertex ids.
+	 *
+	 * @param v     vertex
+	 * @param edges edges of the backend
+	 * @return edges with the original vertex ids as an Iterable
+	 */
+	private Iterable<Edge> relabel(int v, Iterable<Edge> edges) {
+		return () -> new Iterator<Edge>() {
+			private final Iterator<Edge> it = edges.iterator();
+
+			@Override
+			public boolean hasNext() {
+				return it.hasNext();
+			}
+
+			@Override
+			public Edge next() {
+				Edge e = it.next();
+				return new Edge(v, toExternal[e.to()], e.weight());
+			}
+		};
 	}
 
 	/**
@@ -72,23 +245,42 @@ public class Graph {
 	 * @return weight of edge from vertex {@code v} to vertex {@code w}
 	 */
 	public int getWeight(int v, int w) {
-		return adjM[v][w];
+		return backend.weight(toInternal(v), toInternal(w));
+	}
+
+	/**
+	 * Returns if there is an edge from vertex {@code v} to vertex {@code w}, also
+	 * when its weight is 0.
+	 *
+	 * @param v tail vertex
+	 * @param w head vertex
+	 * @return edge from vertex {@code v} to vertex {@code w} exists as a boolean
+	 */
+	public boolean hasEdge(int v, int w) {
+		if (getWeight(v, w) != 0) {
+			return true;
+		}
+		for (Edge e : adj(v)) {
+			if (e.to() == w) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	/**
 	 * Computes possible paths from source vertex {@code src} to different vertices.
-	 * in the reverse graph.
+	 * in the reverse graph. The search runs on the internal ids.
 	 *
 	 * @param src source vertex
 	 */
 	private void reverse(int src) {
-		Boolean[] marked = new Boolean[numOfVertices];
-		Arrays.fill(marked, Boolean.FALSE);
+		boolean[] marked = new boolean[backend.capacity()];
 		Queue<Integer> vertQ = new LinkedList<Integer>();
 		vertQ.add(src);
 		while (!vertQ.isEmpty()) {
 			int v = vertQ.poll();
-			for (Edge e : adjR.get(v)) {
+			for (Edge e : backend.adjR(v)) {
 				int w = e.to();
 				if (!marked[w]) {
 					vertQ.add(w);
@@ -108,9 +300,10 @@ public class Graph {
 	 *         {@code dst} as a boolean
 	 */
 	public boolean hasPath(int src, int dst) {
+		dst = toInternal(dst);
 		if (!map.containsKey(dst)) {
 			reverse(dst);
 		}
-		return map.get(dst)[src];
+		return map.get(dst)[toInternal(src)];
 	}
 }
\ No newline at end of file
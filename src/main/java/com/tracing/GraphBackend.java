@@ -0,0 +1,91 @@
+package com.tracing;
+
+import com.tracing.model.graph.Edge;
+
+/**
+ * The {@code GraphBackend} interface represents the storage of the edges of an
+ * edge-weighted graph. {@link Graph} and the algorithms reading it only use
+ * this interface, so the storage can be chosen per graph from its shape.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+public interface GraphBackend {
+
+	/**
+	 * The type of a storage.
+	 */
+	enum Type {
+		/**
+		 * Adjacency lists and a dense adjacency matrix on the Java heap, for small
+		 * dense graphs.
+		 */
+		MATRIX,
+		/**
+		 * Adjacency and reverse adjacency in compressed sparse row form in arrays on
+		 * the Java heap, for large sparse graphs.
+		 */
+		CSR,
+		/**
+		 * Adjacency and reverse adjacency as delta and varint encoded neighbour lists
+		 * with a skip index on the Java heap, for large graphs with clustered
+		 * neighbour lists.
+		 */
+		COMPRESSED,
+		/**
+		 * Adjacency and reverse adjacency in compressed sparse row form in direct
+		 * buffers outside the Java heap, for graphs too large for the heap.
+		 */
+		OFF_HEAP
+	}
+
+	/**
+	 * Returns the type of the storage.
+	 *
+	 * @return type of the storage
+	 */
+	Type type();
+
+	/**
+	 * Returns the number of vertex ids the storage can hold; every vertex is less
+	 * than it.
+	 *
+	 * @return number of vertex ids
+	 */
+	int capacity();
+
+	/**
+	 * Returns the number of edges.
+	 *
+	 * @return number of edges
+	 */
+	int numOfEdges();
+
+	/**
+	 * Returns the edges from vertex {@code v}.
+	 *
+	 * @param v tail vertex
+	 * @return edges from vertex {@code v} as an Iterable
+	 */
+	Iterable<Edge> adj(int v);
+
+	/**
+	 * Returns the edges to vertex {@code v} as edges from vertex {@code v} in the
+	 * reverse graph.
+	 *
+	 * @param v head vertex
+	 * @return reversed edges to vertex {@code v} as an Iterable
+	 */
+	Iterable<Edge> adjR(int v);
+
+	/**
+	 * Returns the weight of edge from vertex {@code v} to vertex {@code w}.
+	 *
+	 * @param v tail vertex
+	 * @param w head vertex
+	 * @return weight of edge, or 0 if there is no edge
+	 */
+	int weight(int v, int w);
+}
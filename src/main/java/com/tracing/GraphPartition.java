@@ -0,0 +1,220 @@
+package com.tracing;
+
+import com.tracing.model.graph.Edge;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * The {@code GraphPartition} class represents one partition of an
+ * edge-weighted graph cut by {@link Partitioning}: the vertices it owns, in
+ * increasing order, and the edges from them in compressed sparse row form with
+ * the local id of every owned head resolved once. A {@link PartitionWorker}
+ * answers the part of a query on its partition and exchanges the values of the
+ * boundary vertices, the heads of the edges leaving the partition, with the
+ * other partitions through the {@link PartitionCoordinator}.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+public final class GraphPartition {
+	private final int index;
+	private final int[] vertices;
+	private final int[] offsets;
+	private final int[] targets;
+	private final int[] weights;
+	private final int[] heads;
+
+	/**
+	 * Initializes a partition with the vertices it owns and the edges from them.
+	 *
+	 * @param index    partition
+	 * @param vertices owned vertices in increasing order
+	 * @param edges    edges from the owned vertices
+	 */
+	GraphPartition(int index, int[] vertices, List<Edge> edges) {
+		this.index = index;
+		this.vertices = vertices;
+		offsets = new int[vertices.length + 1];
+		for (Edge e : edges) {
+			offsets[localId(e.from()) + 1]++;
+		}
+		for (int i = 0; i < vertices.length; i++) {
+			offsets[i + 1] += offsets[i];
+		}
+		targets = new int[edges.size()];
+		weights = new int[edges.size()];
+		int[] next = Arrays.copyOf(offsets, vertices.length);
+		for (Edge e : edges) {
+			int j = next[localId(e.from())]++;
+			targets[j] = e.to();
+			weights[j] = e.weight();
+		}
+		heads = new int[targets.length];
+		for (int j = 0; j < targets.length; j++) {
+			heads[j] = Math.max(localId(targets[j]), -1);
+		}
+	}
+
+	/**
+	 * Returns the index of the partition.
+	 *
+	 * @return index of the partition
+	 */
+	public int index() {
+		return index;
+	}
+
+	/**
+	 * Returns the number of owned vertices.
+	 *
+	 * @return number of owned vertices
+	 */
+	public int size() {
+		return vertices.length;
+	}
+
+	/**
+	 * Returns the number of edges from the owned vertices.
+	 *
+	 * @return number of edges
+	 */
+	public int numOfEdges() {
+		return targets.length;
+	}
+
+	/**
+	 * Returns the local id of vertex {@code v}.
+	 *
+	 * @param v vertex
+	 * @return local id of vertex {@code v}, or a negative value if it is not
+	 *         owned by the partition
+	 */
+	int localId(int v) {
+		return Arrays.binarySearch(vertices, v);
+	}
+
+	/**
+	 * Continues a shortest path search on the partition. The distances of owned
+	 * vertices improved by the seeds, or the edges from the source vertex
+	 * {@code src} when it is owned and the search starts, are propagated with the
+	 * Dijkstra algorithm over the partition. An edge leaving the partition yields
+	 * a distance for its head, which is returned when it improves on the last
+	 * distance sent for that vertex. The distance to the source vertex is left
+	 * unset, so that it is only reached through a cycle.
+	 *
+	 * @param distTo   distance of every owned vertex by local id, updated in place
+	 * @param boundary last distance sent for every boundary vertex, updated in
+	 *                 place
+	 * @param seeds    distances of owned vertices found by other partitions
+	 * @param src      source vertex when the search starts, otherwise -1
+	 * @param unit     count hops instead of latency
+	 * @return improved distances of boundary vertices
+	 */
+	Map<Integer, Long> search(long[] distTo, Map<Integer, Long> boundary, Map<Integer, Long> seeds, int src,
+			boolean unit) {
+		PriorityQueue<long[]> pq = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+		Map<Integer, Long> outgoing = new HashMap<>();
+		int s = src < 0 ? -1 : localId(src);
+		if (s >= 0) {
+			relax(s, 0, distTo, boundary, outgoing, pq, unit);
+		}
+		for (Map.Entry<Integer, Long> seed : seeds.entrySet()) {
+			int i = localId(seed.getKey());
+			if (i >= 0 && seed.getValue() < distTo[i]) {
+				distTo[i] = seed.getValue();
+				pq.add(new long[] { seed.getValue(), i });
+			}
+		}
+		while (!pq.isEmpty()) {
+			long[] node = pq.poll();
+			int i = (int) node[1];
+			if (node[0] == distTo[i]) {
+				relax(i, node[0], distTo, boundary, outgoing, pq, unit);
+			}
+		}
+		return outgoing;
+	}
+
+	/**
+	 * Relaxes the edges from an owned vertex.
+	 *
+	 * @param i        local id of the vertex
+	 * @param dist     distance of the vertex
+	 * @param distTo   distance of every owned vertex by local id
+	 * @param boundary last distance sent for every boundary vertex
+	 * @param outgoing improved distances of boundary vertices
+	 * @param pq       queue of owned vertices to relax
+	 * @param unit     count hops instead of latency
+	 */
+	private void relax(int i, long dist, long[] distTo, Map<Integer, Long> boundary, Map<Integer, Long> outgoing,
+			PriorityQueue<long[]> pq, boolean unit) {
+		for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+			long d = dist + (unit ? 1 : weights[j]);
+			int k = heads[j];
+			if (k >= 0) {
+				if (d < distTo[k]) {
+					distTo[k] = d;
+					pq.add(new long[] { d, k });
+				}
+			} else if (d < boundary.getOrDefault(targets[j], Long.MAX_VALUE)) {
+				boundary.put(targets[j], d);
+				outgoing.put(targets[j], d);
+			}
+		}
+	}
+
+	/**
+	 * Advances a path count by one hop on the partition. The counts of the owned
+	 * vertices, plus the counts arriving from other partitions, are pushed along
+	 * every edge; the counts of owned heads replace {@code counts} and the counts
+	 * of boundary heads are returned. Counts saturate at {@code Long.MAX_VALUE}.
+	 *
+	 * @param counts   number of paths to every owned vertex by local id, updated
+	 *                 in place
+	 * @param incoming number of paths to owned vertices from other partitions
+	 * @return number of paths to boundary vertices
+	 */
+	Map<Integer, Long> step(long[] counts, Map<Integer, Long> incoming) {
+		for (Map.Entry<Integer, Long> count : incoming.entrySet()) {
+			int i = localId(count.getKey());
+			if (i >= 0) {
+				counts[i] = add(counts[i], count.getValue());
+			}
+		}
+		long[] next = new long[counts.length];
+		Map<Integer, Long> outgoing = new HashMap<>();
+		for (int i = 0; i < counts.length; i++) {
+			if (counts[i] == 0) {
+				continue;
+			}
+			for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+				int k = heads[j];
+				if (k >= 0) {
+					next[k] = add(next[k], counts[i]);
+				} else {
+					outgoing.merge(targets[j], counts[i], GraphPartition::add);
+				}
+			}
+		}
+		System.arraycopy(next, 0, counts, 0, counts.length);
+		return outgoing;
+	}
+
+	/**
+	 * Returns the sum of two counts, saturating at {@code Long.MAX_VALUE}.
+	 *
+	 * @param a count
+	 * @param b count
+	 * @return sum
+	 */
+	static long add(long a, long b) {
+		long sum = a + b;
+		return sum < 0 ? Long.MAX_VALUE : sum;
+	}
+}
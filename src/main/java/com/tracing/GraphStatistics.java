@@ -0,0 +1,165 @@
+package com.tracing;
+
+import com.tracing.model.graph.Edge;
+
+import java.util.List;
+
+/**
+ * The {@code GraphStatistics} class represents cheap statistics of an
+ * edge-weighted graph gathered in one pass over its edges when the graph is
+ * built. They are used by the {@link QueryPlanner} to estimate the cost of the
+ * algorithms it can choose from.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+public final class GraphStatistics {
+	private final int numOfVertices;
+	private final int numOfEdges;
+	private final int maxOutDegree;
+	private final int minWeight;
+	private final int maxWeight;
+	private final double meanWeight;
+	private final double effectiveWeight;
+
+	/**
+	 * Gathers the statistics of given edges.
+	 *
+	 * @param edges         edges
+	 * @param capacity      number of vertex ids
+	 * @param numOfVertices number of vertices
+	 */
+	GraphStatistics(List<Edge> edges, int capacity, int numOfVertices) {
+		int[] outDegree = new int[capacity];
+		int max = 0, minW = edges.isEmpty() ? 0 : Integer.MAX_VALUE, maxW = 0;
+		long sumW = 0;
+		long[] bucketCounts = new long[Integer.SIZE];
+		long[] bucketSums = new long[Integer.SIZE];
+		for (Edge e : edges) {
+			max = Math.max(max, ++outDegree[e.from()]);
+			minW = Math.min(minW, e.weight());
+			maxW = Math.max(maxW, e.weight());
+			sumW += e.weight();
+			int bucket = Integer.SIZE - 1 - Integer.numberOfLeadingZeros(Math.max(e.weight(), 1));
+			bucketCounts[bucket]++;
+			bucketSums[bucket] += e.weight();
+		}
+		this.numOfVertices = numOfVertices;
+		this.numOfEdges = edges.size();
+		this.maxOutDegree = max;
+		this.minWeight = minW;
+		this.maxWeight = maxW;
+		this.meanWeight = edges.isEmpty() ? 0 : (double) sumW / edges.size();
+		this.effectiveWeight = effectiveWeight(bucketCounts, bucketSums);
+	}
+
+	/**
+	 * Computes the effective weight from the weights grouped in buckets of powers
+	 * of two. With out-degree {@code d > 1} the number of paths of less than a
+	 * latency {@code L} grows like {@code r^L}, where {@code r} is the root of
+	 * {@code d E[r^-W] = 1} over the weights {@code W}, which is found by
+	 * bisection between 1 and {@code d^(1 / minWeight)}.
+	 *
+	 * @param bucketCounts number of edges of every bucket
+	 * @param bucketSums   sum of the weights of every bucket
+	 * @return effective weight, the mean weight without growth
+	 */
+	private double effectiveWeight(long[] bucketCounts, long[] bucketSums) {
+		double d = getAverageOutDegree();
+		if (d <= 1 || minWeight <= 0) {
+			return meanWeight;
+		}
+		double lo = 1, hi = Math.pow(d, 1.0 / minWeight);
+		for (int i = 0; i < 64; i++) {
+			double r = (lo + hi) / 2, f = 0;
+			for (int b = 0; b < bucketCounts.length; b++) {
+				if (bucketCounts[b] > 0) {
+					f += bucketCounts[b] * Math.pow(r, -(double) bucketSums[b] / bucketCounts[b]);
+				}
+			}
+			if (d * f / numOfEdges > 1) {
+				lo = r;
+			} else {
+				hi = r;
+			}
+		}
+		return lo == 1 ? meanWeight : Math.log(d) / Math.log(lo);
+	}
+
+	/**
+	 * Returns the number of vertices.
+	 *
+	 * @return number of vertices
+	 */
+	public int getNumOfVertices() {
+		return numOfVertices;
+	}
+
+	/**
+	 * Returns the number of edges.
+	 *
+	 * @return number of edges
+	 */
+	public int getNumOfEdges() {
+		return numOfEdges;
+	}
+
+	/**
+	 * Returns the average number of edges from a vertex.
+	 *
+	 * @return average out-degree
+	 */
+	public double getAverageOutDegree() {
+		return numOfVertices == 0 ? 0 : (double) numOfEdges / numOfVertices;
+	}
+
+	/**
+	 * Returns the largest number of edges from a vertex.
+	 *
+	 * @return maximum out-degree
+	 */
+	public int getMaxOutDegree() {
+		return maxOutDegree;
+	}
+
+	/**
+	 * Returns the least weight of an edge.
+	 *
+	 * @return minimum weight, 0 if there are no edges
+	 */
+	public int getMinWeight() {
+		return minWeight;
+	}
+
+	/**
+	 * Returns the largest weight of an edge.
+	 *
+	 * @return maximum weight, 0 if there are no edges
+	 */
+	public int getMaxWeight() {
+		return maxWeight;
+	}
+
+	/**
+	 * Returns the average weight of an edge.
+	 *
+	 * @return mean weight, 0 if there are no edges
+	 */
+	public double getMeanWeight() {
+		return meanWeight;
+	}
+
+	/**
+	 * Returns the weight {@code w} such that the number of paths of less than a
+	 * latency {@code L} grows like {@code d^(L / w)} for an average out-degree
+	 * {@code d}. Short edges lead to deep paths, so it lies between the least and
+	 * the mean weight.
+	 *
+	 * @return effective weight, 0 if there are no edges
+	 */
+	public double getEffectiveWeight() {
+		return effectiveWeight;
+	}
+}
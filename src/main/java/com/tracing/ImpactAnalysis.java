@@ -0,0 +1,280 @@
+package com.tracing;
+
+import com.tracing.model.graph.Edge;
+
+import java.util.stream.IntStream;
+
+/**
+ * The {@code ImpactAnalysis} class represents the vertices which can reach
+ * each of many services within a number of hops in an edge-weighted graph,
+ * the blast radius of those services, with the least number of hops of every
+ * such path. A path has at least one hop, as in {@link Graph#hasPath(int, int)},
+ * so a service only reaches itself through a cycle.
+ * <p>
+ * The searches run together as a bit-parallel breadth first search in the
+ * reverse graph: every service is a bit of a lane of 64 sources, a traversal
+ * carries {@code WORDS_PER_TRAVERSAL} lanes, and one scan of the reverse edges
+ * of a vertex advances the frontiers of all of them. The gain comes from
+ * frontiers that overlap, as in graphs of short paths between services; where
+ * the paths are long the frontiers rarely meet and every service costs about a
+ * search of its own. The traversals of different lanes run in parallel. The
+ * hops of every vertex and service are kept bit-sliced, one word per bit of the
+ * number of hops next to the word of the services reached, so that reaching a
+ * vertex writes to one place. The searches run on the internal ids of the
+ * backend, and the vertices are only translated by the accessors.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+public final class ImpactAnalysis {
+	private static final int WORDS_PER_TRAVERSAL = 4;
+	private final Graph graph;
+	private final int[] services;
+	private final int[] sources;
+	private final int numOfVertices;
+	private final int capacity;
+	private final int words;
+	private final int stride;
+	private final long[] bits;
+	private final int[] offsets;
+	private final int[] tails;
+
+	/**
+	 * Computes the vertices which can reach every service within the maximum
+	 * number of hops.
+	 *
+	 * @param graph    graph
+	 * @param services destination vertices
+	 * @param maxHops  maximum number of hops, {@code Integer.MAX_VALUE} for any
+	 */
+	public ImpactAnalysis(Graph graph, int[] services, int maxHops) {
+		int n = graph.getNumOfVertices();
+		for (int service : services) {
+			if (service < 0 || service >= n) {
+				throw new IllegalArgumentException("Service " + service + " is not a vertex of the graph");
+			}
+		}
+		this.graph = graph;
+		this.services = services.clone();
+		this.sources = IntStream.of(services).map(graph::toInternal).toArray();
+		this.numOfVertices = n;
+		GraphBackend backend = graph.getBackend();
+		this.capacity = backend.capacity();
+		this.words = (services.length + Long.SIZE - 1) / Long.SIZE;
+		int depth = Math.max(Math.min(maxHops, n), 0);
+		this.stride = 1 + Integer.SIZE - Integer.numberOfLeadingZeros(depth);
+		this.bits = new long[capacity * words * stride];
+		offsets = new int[capacity + 1];
+		for (int v = 0; v < capacity; v++) {
+			for (Edge e : backend.adjR(v)) {
+				offsets[v + 1]++;
+			}
+			offsets[v + 1] += offsets[v];
+		}
+		tails = new int[offsets[capacity]];
+		for (int v = 0, j = 0; v < capacity; v++) {
+			for (Edge e : backend.adjR(v)) {
+				tails[j++] = e.to();
+			}
+		}
+		int numOfTraversals = (words + WORDS_PER_TRAVERSAL - 1) / WORDS_PER_TRAVERSAL;
+		IntStream.range(0, numOfTraversals).parallel().forEach(t -> {
+			Traversal traversal = new Traversal(t * WORDS_PER_TRAVERSAL,
+					Math.min((t + 1) * WORDS_PER_TRAVERSAL, words));
+			for (int hops = 1; hops <= depth && traversal.size > 0; hops++) {
+				traversal.expand();
+				traversal.settle(hops);
+			}
+		});
+	}
+
+	/**
+	 * Returns the number of services.
+	 *
+	 * @return number of services
+	 */
+	public int numOfServices() {
+		return services.length;
+	}
+
+	/**
+	 * Returns service {@code i}.
+	 *
+	 * @param i index of the service
+	 * @return service {@code i}
+	 */
+	public int service(int i) {
+		return services[i];
+	}
+
+	/**
+	 * Returns if vertex {@code v} reaches service {@code i} within the maximum
+	 * number of hops.
+	 *
+	 * @param v vertex
+	 * @param i index of the service
+	 * @return vertex {@code v} reaches service {@code i} as a boolean
+	 */
+	public boolean reaches(int v, int i) {
+		return (bits[(graph.toInternal(v) * words + i / Long.SIZE) * stride] & 1L << i) != 0;
+	}
+
+	/**
+	 * Returns the least number of hops of a path from vertex {@code v} to service
+	 * {@code i}.
+	 *
+	 * @param v vertex
+	 * @param i index of the service
+	 * @return number of hops, 0 if vertex {@code v} does not reach service
+	 *         {@code i} within the maximum number of hops
+	 */
+	public int hops(int v, int i) {
+		int j = (graph.toInternal(v) * words + i / Long.SIZE) * stride, hops = 0;
+		for (int b = 0; b < stride - 1; b++) {
+			if ((bits[j + 1 + b] & 1L << i) != 0) {
+				hops |= 1 << b;
+			}
+		}
+		return hops;
+	}
+
+	/**
+	 * Returns the vertices which reach service {@code i} within the maximum number
+	 * of hops.
+	 *
+	 * @param i index of the service
+	 * @return impacted vertices in increasing order
+	 */
+	public int[] impacted(int i) {
+		return IntStream.range(0, numOfVertices).filter(v -> reaches(v, i)).toArray();
+	}
+
+	/**
+	 * Returns the number of vertices which reach every service within the maximum
+	 * number of hops.
+	 *
+	 * @return number of impacted vertices of every service
+	 */
+	public int[] impactCounts() {
+		int[] counts = new int[services.length];
+		for (int v = 0; v < numOfVertices; v++) {
+			int u = graph.toInternal(v);
+			for (int l = 0; l < words; l++) {
+				for (long found = bits[(u * words + l) * stride]; found != 0; found &= found - 1) {
+					counts[l * Long.SIZE + Long.numberOfTrailingZeros(found)]++;
+				}
+			}
+		}
+		return counts;
+	}
+
+	/**
+	 * The {@code Traversal} class represents the breadth first search of the
+	 * services of some lanes, level by level. The frontier of a vertex holds the
+	 * services it reached on the last level, and only the vertices with a
+	 * frontier are queued, so a vertex is scanned once per level whatever the
+	 * number of services reaching it.
+	 */
+	private final class Traversal {
+		private final int from;
+		private final int width;
+		private final long[] frontier;
+		private final long[] next;
+		private final long[] reached;
+		private final boolean[] queued;
+		private int[] vertQ;
+		private int[] nextQ;
+		private int size;
+		private int nextSize;
+
+		/**
+		 * Starts the search of the services of the lanes {@code from} up to
+		 * {@code to} from the services themselves.
+		 *
+		 * @param from first lane
+		 * @param to   lane after the last
+		 */
+		private Traversal(int from, int to) {
+			this.from = from;
+			this.width = to - from;
+			frontier = new long[capacity * width];
+			next = new long[capacity * width];
+			reached = new long[capacity * width];
+			queued = new boolean[capacity];
+			vertQ = new int[capacity];
+			nextQ = new int[capacity];
+			for (int i = from * Long.SIZE; i < Math.min(to * Long.SIZE, services.length); i++) {
+				int v = sources[i];
+				frontier[v * width + i / Long.SIZE - from] |= 1L << i;
+				if (!queued[v]) {
+					queued[v] = true;
+					vertQ[size++] = v;
+				}
+			}
+		}
+
+		/**
+		 * Moves the frontier of every queued vertex to the predecessors it has not
+		 * reached yet.
+		 */
+		private void expand() {
+			nextSize = 0;
+			for (int k = 0; k < size; k++) {
+				queued[vertQ[k]] = false;
+			}
+			for (int k = 0; k < size; k++) {
+				int v = vertQ[k];
+				for (int p = offsets[v]; p < offsets[v + 1]; p++) {
+					int u = tails[p];
+					boolean any = false;
+					for (int l = 0; l < width; l++) {
+						long found = frontier[v * width + l] & ~reached[u * width + l];
+						if (found != 0) {
+							next[u * width + l] |= found;
+							any = true;
+						}
+					}
+					if (any && !queued[u]) {
+						queued[u] = true;
+						nextQ[nextSize++] = u;
+					}
+				}
+				for (int l = 0; l < width; l++) {
+					frontier[v * width + l] = 0;
+				}
+			}
+		}
+
+		/**
+		 * Marks the predecessors found by {@link #expand()} as reached in
+		 * {@code hops} hops and makes them the frontier.
+		 *
+		 * @param hops number of hops of the level
+		 */
+		private void settle(int hops) {
+			for (int k = 0; k < nextSize; k++) {
+				int u = nextQ[k];
+				for (int l = 0; l < width; l++) {
+					long found = next[u * width + l];
+					if (found == 0) {
+						continue;
+					}
+					int j = (u * words + from + l) * stride;
+					reached[u * width + l] |= found;
+					bits[j] |= found;
+					for (int h = hops; h != 0; h &= h - 1) {
+						bits[j + 1 + Integer.numberOfTrailingZeros(h)] |= found;
+					}
+					frontier[u * width + l] = found;
+					next[u * width + l] = 0;
+				}
+			}
+			int[] swap = vertQ;
+			vertQ = nextQ;
+			nextQ = swap;
+			size = nextSize;
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package com.tracing;
+
+import com.tracing.model.output.QueryResult;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The {@code JsonLinesSink} class represents a sink writing one JSON object per
+ * result and line, with the query {@code id}, {@code type}, {@code result} and
+ * {@code elapsedNanos}, through a buffer. A result which is not found is
+ * written as {@code null}, so it cannot be mistaken for a count of 0.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+public class JsonLinesSink implements ResultSink {
+	private final Writer writer;
+	private final StringBuilder line = new StringBuilder();
+
+	/**
+	 * Initializes a sink writing to a stream.
+	 *
+	 * @param out stream
+	 */
+	public JsonLinesSink(OutputStream out) {
+		this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), TextSink.BUFFER_SIZE);
+	}
+
+	@Override
+	public void write(QueryResult result) throws IOException {
+		line.setLength(0);
+		line.append("{\"id\":").append(result.getId()).append(",\"type\":\"").append(result.getType())
+				.append("\",\"result\":");
+		if (result.isFound()) {
+			line.append(result.getResult());
+		} else {
+			line.append("null");
+		}
+		line.append(",\"elapsedNanos\":").append(result.getElapsedNanos()).append("}\n");
+		writer.append(line);
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+}
@@ -0,0 +1,282 @@
+package com.tracing;
+
+import com.tracing.model.graph.Edge;
+import com.tracing.model.graph.Trace;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * The {@code KShortestPaths} class represents the {@code k} fastest and the
+ * {@code k} slowest simple traces from a source vertex {@code src} to a
+ * destination vertex {@code dst} in an edge-weighted graph. When {@code src}
+ * and {@code dst} are the same vertex the traces are the simple cycles through
+ * it.
+ * <p>
+ * The fastest traces are found with Yen's algorithm. The shortest path tree to
+ * {@code dst} in the reverse graph is computed once and reused by every spur
+ * computation: a spur path is taken from the tree whenever its tree path avoids
+ * the root path, and a restricted Dijkstra search is only run when a blocked
+ * tree path could still be shorter than the best clear one. The slowest traces
+ * are found by a depth first enumeration of the simple traces pruned by the
+ * same tree to the vertices which reach {@code dst}, which is exponential in
+ * the worst case. The searches run on the internal ids of the backend; the
+ * root paths of Yen's algorithm are translated to internal ids, and the traces
+ * found back to the original vertex ids, so that traces of equal latency keep
+ * their order.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+public class KShortestPaths {
+	private final Graph graph;
+	private final GraphBackend backend;
+	private final int src;
+	private final int dst;
+	private final ShortestPath tree;
+	private final List<Trace> found = new ArrayList<>();
+	private final PriorityQueue<Trace> candidates = new PriorityQueue<>();
+	private final Set<Trace> seen = new HashSet<>();
+
+	/**
+	 * Initializes the traces from the source vertex {@code src} to the destination
+	 * vertex {@code dst} in the graph {@code G}.
+	 *
+	 * @param graph graph
+	 * @param src   source vertex
+	 * @param dst   destination vertex
+	 */
+	public KShortestPaths(Graph graph, int src, int dst) {
+		this.graph = graph;
+		this.backend = graph.getBackend();
+		this.src = graph.toInternal(src);
+		this.dst = graph.toInternal(dst);
+		this.tree = new ShortestPath(backend, this.dst, true);
+	}
+
+	/**
+	 * Returns upto {@code k} fastest simple traces in increasing order of latency.
+	 * Traces found by an earlier call are reused.
+	 *
+	 * @param k number of traces
+	 * @return fastest traces
+	 */
+	public List<Trace> fastest(int k) {
+		while (found.size() < k) {
+			if (found.isEmpty()) {
+				Trace first = spur(new Trace(new int[] { graph.toExternal(src) }, new int[0]), 0,
+						Collections.emptySet());
+				if (first == null) {
+					break;
+				}
+				seen.add(first);
+				found.add(first);
+				continue;
+			}
+			Trace prev = found.get(found.size() - 1);
+			for (int i = 0; i < prev.hops(); i++) {
+				Set<Integer> blockedOut = new HashSet<>();
+				for (Trace p : found) {
+					if (p.hops() > i && samePrefix(p, prev, i)) {
+						blockedOut.add(graph.toInternal(p.vertex(i + 1)));
+					}
+				}
+				Trace t = spur(prev, i, blockedOut);
+				if (t != null && seen.add(t)) {
+					candidates.add(t);
+				}
+			}
+			if (candidates.isEmpty()) {
+				break;
+			}
+			found.add(candidates.poll());
+		}
+		return new ArrayList<>(found.subList(0, Math.min(k, found.size())));
+	}
+
+	/**
+	 * Returns upto {@code k} slowest simple traces in decreasing order of latency.
+	 *
+	 * @param k number of traces
+	 * @return slowest traces
+	 */
+	public List<Trace> slowest(int k) {
+		PriorityQueue<Trace> best = new PriorityQueue<>();
+		if (k <= 0) {
+			return new ArrayList<>();
+		}
+		int[] vertices = new int[backend.capacity() + 1];
+		int[] latencies = new int[backend.capacity()];
+		boolean[] onPath = new boolean[backend.capacity()];
+		vertices[0] = src;
+		onPath[src] = true;
+		slowest(src, 0, vertices, latencies, onPath, best, k);
+		List<Trace> result = new ArrayList<>(best);
+		result.sort(Collections.reverseOrder());
+		return result;
+	}
+
+	/**
+	 * Extends the simple trace ending at internal id {@code v} in every possible
+	 * way and keeps the {@code k} slowest traces reaching the destination vertex,
+	 * translated to the original vertex ids.
+	 *
+	 * @param v         internal id of the last vertex of the trace
+	 * @param hops      number of hops of the trace
+	 * @param vertices  internal ids of the vertices of the trace
+	 * @param latencies latency of each hop of the trace
+	 * @param onPath    vertices on the trace
+	 * @param best      slowest traces found so far
+	 * @param k         number of traces
+	 */
+	private void slowest(int v, int hops, int[] vertices, int[] latencies, boolean[] onPath,
+			PriorityQueue<Trace> best, int k) {
+		for (Edge e : backend.adj(v)) {
+			int w = e.to();
+			vertices[hops + 1] = w;
+			latencies[hops] = e.weight();
+			if (w == dst) {
+				int[] traceVerts = new int[hops + 2];
+				for (int j = 0; j < traceVerts.length; j++) {
+					traceVerts[j] = graph.toExternal(vertices[j]);
+				}
+				Trace t = new Trace(traceVerts, Arrays.copyOf(latencies, hops + 1));
+				if (best.size() < k) {
+					best.add(t);
+				} else if (t.compareTo(best.peek()) > 0) {
+					best.poll();
+					best.add(t);
+				}
+			} else if (!onPath[w] && tree.distTo(w) != Integer.MAX_VALUE) {
+				onPath[w] = true;
+				slowest(w, hops + 1, vertices, latencies, onPath, best, k);
+				onPath[w] = false;
+			}
+		}
+	}
+
+	/**
+	 * Returns the fastest trace which follows the first {@code i} hops of the
+	 * given trace, then leaves its {@code i}-th vertex by an edge not ending in
+	 * {@code blockedOut} and reaches the destination vertex without revisiting
+	 * the root path.
+	 *
+	 * @param prev       trace providing the root path
+	 * @param i          index of the spur vertex
+	 * @param blockedOut internal ids of the heads of the edges which cannot leave
+	 *                   the spur vertex
+	 * @return fastest such trace, or null if there is none
+	 */
+	private Trace spur(Trace prev, int i, Set<Integer> blockedOut) {
+		int s = graph.toInternal(prev.vertex(i));
+		boolean[] blocked = new boolean[backend.capacity()];
+		for (int j = 0; j <= i; j++) {
+			int v = graph.toInternal(prev.vertex(j));
+			if (v != dst) {
+				blocked[v] = true;
+			}
+		}
+
+		Edge bestEdge = null;
+		long bestLatency = Long.MAX_VALUE;
+		long unclearLatency = Long.MAX_VALUE;
+		for (Edge e : backend.adj(s)) {
+			int x = e.to();
+			if (blocked[x] || blockedOut.contains(x) || tree.distTo(x) == Integer.MAX_VALUE) {
+				continue;
+			}
+			long latency = (long) e.weight() + tree.distTo(x);
+			if (latency >= bestLatency) {
+				continue;
+			}
+			if (isClear(tree, x, blocked)) {
+				bestLatency = latency;
+				bestEdge = e;
+			} else {
+				unclearLatency = Math.min(unclearLatency, latency);
+			}
+		}
+
+		ShortestPath spurTree = tree;
+		if (unclearLatency < bestLatency) {
+			spurTree = new ShortestPath(backend, dst, true, blocked);
+			bestEdge = null;
+			bestLatency = Long.MAX_VALUE;
+			for (Edge e : backend.adj(s)) {
+				int x = e.to();
+				if (blocked[x] || blockedOut.contains(x) || spurTree.distTo(x) == Integer.MAX_VALUE) {
+					continue;
+				}
+				long latency = (long) e.weight() + spurTree.distTo(x);
+				if (latency < bestLatency) {
+					bestLatency = latency;
+					bestEdge = e;
+				}
+			}
+		}
+		if (bestEdge == null) {
+			return null;
+		}
+
+		List<Integer> vertices = new ArrayList<>();
+		List<Integer> latencies = new ArrayList<>();
+		for (int j = 0; j <= i; j++) {
+			vertices.add(prev.vertex(j));
+			if (j < i) {
+				latencies.add(prev.latency(j));
+			}
+		}
+		vertices.add(graph.toExternal(bestEdge.to()));
+		latencies.add(bestEdge.weight());
+		for (int v = bestEdge.to(); v != dst;) {
+			Edge e = spurTree.edgeTo(v);
+			v = e.from();
+			vertices.add(graph.toExternal(v));
+			latencies.add(e.weight());
+		}
+		return new Trace(vertices.stream().mapToInt(Integer::intValue).toArray(),
+				latencies.stream().mapToInt(Integer::intValue).toArray());
+	}
+
+	/**
+	 * Returns if the path from internal id {@code v} to the root of the reverse
+	 * shortest path tree avoids the blocked ids.
+	 *
+	 * @param spt     reverse shortest path tree over internal ids
+	 * @param v       internal id
+	 * @param blocked blocked internal ids
+	 * @return tree path avoids the blocked vertices as a boolean
+	 */
+	private boolean isClear(ShortestPath spt, int v, boolean[] blocked) {
+		for (; v != dst; v = spt.edgeTo(v).from()) {
+			if (blocked[v]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns if two traces visit the same first {@code i + 1} vertices.
+	 *
+	 * @param a trace
+	 * @param b other trace
+	 * @param i index of the last vertex compared
+	 * @return traces share the prefix as a boolean
+	 */
+	private static boolean samePrefix(Trace a, Trace b, int i) {
+		for (int j = 0; j <= i; j++) {
+			if (a.vertex(j) != b.vertex(j)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -4,11 +4,23 @@ import com.tracing.model.input.AverageLatencyInput;
 import com.tracing.model.input.InputParser;
 import com.tracing.model.input.ShortestPathInput;
 import com.tracing.model.input.TracingInput;
+import com.tracing.model.output.QueryResult;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalLong;
 
 /**
  * The {@code Main} class represents the main class for executing the
  * application. Shared input is given in the "\src\main\resources\input.txt"
  * file and output will be displayed on the console for the 10 input scenarios.
+ * The results are written by a {@link ResultSink} off the query thread, as
+ * text by default or as JSON Lines or binary records with
+ * {@code --format jsonl|binary}, to the console or to {@code --output <file>}.
  *
  * @author Melwin Mathew
  * @version 1.0
@@ -16,51 +28,98 @@ import com.tracing.model.input.TracingInput;
  */
 
 public class Main {
+	private static final int QUEUE_CAPACITY = 4096;
 
 	/**
 	 * Main function for executing the application.
 	 *
-	 * @param args arguments
+	 * @param args options followed by the input files
+	 * @throws IOException if the results cannot be written
 	 */
-	public static void main(String[] args) {
-		if (args.length == 0) {
+	public static void main(String[] args) throws IOException {
+		ResultSink.Format format = ResultSink.Format.TEXT;
+		String output = null;
+		int first = 0;
+		for (; first + 1 < args.length && args[first].startsWith("--"); first += 2) {
+			if (args[first].equals("--format")) {
+				format = parseFormat(args[first + 1]);
+			} else if (args[first].equals("--output")) {
+				output = args[first + 1];
+			} else {
+				throw new IllegalArgumentException("Unknown option " + args[first]);
+			}
+		}
+		List<String> filePaths = Arrays.asList(args).subList(first, args.length);
+		if (filePaths.isEmpty()) {
 			System.out.println("The input test files should be provided as argument!");
 			System.exit(1);
 		}
 
-		for (String filePath : args) {
-			long result = 0;
-			InputParser inputParser = new InputParser();
-			TracingInput tracingInput = inputParser.parse(filePath);
-			Graph graph = new Graph(tracingInput.getGraphInput());
-			TraceProcessor traceProcessor = new TraceProcessor();
-			for (AverageLatencyInput averageLatencyInput : tracingInput.getAverageLatencyInput()) {
-				result = traceProcessor.findAverageLatency(graph, averageLatencyInput);
-				printResult(result);
+		OutputStream out = output == null ? ResultSink.console() : Files.newOutputStream(Paths.get(output));
+		try (ResultSink sink = new AsyncSink(ResultSink.create(format, out), QUEUE_CAPACITY)) {
+			long id = 0;
+			for (String filePath : filePaths) {
+				long result = 0;
+				OptionalLong latency;
+				long start = 0;
+				InputParser inputParser = new InputParser();
+				TracingInput tracingInput = inputParser.parse(filePath);
+				Graph graph = new Graph(tracingInput.getGraphInput());
+				TraceProcessor traceProcessor = new TraceProcessor();
+				for (AverageLatencyInput averageLatencyInput : tracingInput.getAverageLatencyInput()) {
+					start = System.nanoTime();
+					latency = traceProcessor.findAverageLatencyIfExists(graph, averageLatencyInput);
+					writeResult(sink, ++id, QueryResult.Type.AVERAGE_LATENCY, latency, start);
+				}
+				start = System.nanoTime();
+				result = traceProcessor.findUptoHops(graph, tracingInput.getUptoHopsInput());
+				writeResult(sink, ++id, QueryResult.Type.UPTO_HOPS, OptionalLong.of(result), start);
+				start = System.nanoTime();
+				result = traceProcessor.findExactHops(graph, tracingInput.getExactHopsInput());
+				writeResult(sink, ++id, QueryResult.Type.EXACT_HOPS, OptionalLong.of(result), start);
+				for (ShortestPathInput shortestPathInput : tracingInput.getShortestPathInput()) {
+					start = System.nanoTime();
+					latency = traceProcessor.findShortestPathIfExists(graph, shortestPathInput);
+					writeResult(sink, ++id, QueryResult.Type.SHORTEST_PATH, latency, start);
+				}
+				start = System.nanoTime();
+				result = traceProcessor.findUptoLatency(graph, tracingInput.getUptoLatencyInput());
+				writeResult(sink, ++id, QueryResult.Type.UPTO_LATENCY, OptionalLong.of(result), start);
 			}
-			result = traceProcessor.findUptoHops(graph, tracingInput.getUptoHopsInput());
-			printResult(result);
-			result = traceProcessor.findExactHops(graph, tracingInput.getExactHopsInput());
-			printResult(result);
-			for (ShortestPathInput shortestPathInput : tracingInput.getShortestPathInput()) {
-				result = traceProcessor.findShortestPath(graph, shortestPathInput);
-				printResult(result);
-			}
-			result = traceProcessor.findUptoLatency(graph, tracingInput.getUptoLatencyInput());
-			printResult(result);
 		}
 	}
 
 	/**
-	 * Function for printing the result.
+	 * Function for writing the result of a query which started at {@code start}.
+	 *
+	 * @param sink   sink of the results
+	 * @param id     query id
+	 * @param type   query type
+	 * @param result result, empty if there is no trace
+	 * @param start  start of the query in nanoseconds
+	 * @throws IOException if the result cannot be written
+	 */
+	private static void writeResult(ResultSink sink, long id, QueryResult.Type type, OptionalLong result, long start)
+			throws IOException {
+		sink.write(QueryResult.of(id, type, result, System.nanoTime() - start));
+	}
+
+	/**
+	 * Function for parsing the format of the results.
 	 *
-	 * @param result result
+	 * @param name name of the format
+	 * @return format of the results
 	 */
-	private static void printResult(long result) {
-		if (result == 0) {
-			System.out.println("NO SUCH TRACE");
-		} else {
-			System.out.println(result);
+	private static ResultSink.Format parseFormat(String name) {
+		switch (name) {
+		case "text":
+			return ResultSink.Format.TEXT;
+		case "jsonl":
+			return ResultSink.Format.JSON_LINES;
+		case "binary":
+			return ResultSink.Format.BINARY;
+		default:
+			throw new IllegalArgumentException("Unknown format " + name);
 		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,78 @@
+package com.tracing;
+
+import com.tracing.model.graph.Edge;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code MatrixBackend} class represents the storage of the edges of an
+ * edge-weighted graph on the Java heap with both adjacency list and adjacency
+ * matrix representation. The matrix takes memory quadratic in the number of
+ * vertices, so it suits small dense graphs.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+class MatrixBackend implements GraphBackend {
+	private final int capacity;
+	private final int numOfEdges;
+	private final List<List<Edge>> adj;
+	private final List<List<Edge>> adjR;
+	private final int[][] adjM;
+
+	/**
+	 * Initializes the storage with given edges.
+	 *
+	 * @param edges    edges
+	 * @param capacity number of vertex ids
+	 */
+	MatrixBackend(List<Edge> edges, int capacity) {
+		this.capacity = capacity;
+		this.numOfEdges = edges.size();
+		adj = new ArrayList<>(capacity);
+		adjR = new ArrayList<>(capacity);
+		adjM = new int[capacity][capacity];
+		for (int v = 0; v < capacity; v++) {
+			adj.add(v, new ArrayList<>());
+			adjR.add(v, new ArrayList<>());
+		}
+		for (Edge e : edges) {
+			adj.get(e.from()).add(e);
+			adjM[e.from()][e.to()] = e.weight();
+			adjR.get(e.to()).add(new Edge(e.to(), e.from(), e.weight()));
+		}
+	}
+
+	@Override
+	public Type type() {
+		return Type.MATRIX;
+	}
+
+	@Override
+	public int capacity() {
+		return capacity;
+	}
+
+	@Override
+	public int numOfEdges() {
+		return numOfEdges;
+	}
+
+	@Override
+	public Iterable<Edge> adj(int v) {
+		return adj.get(v);
+	}
+
+	@Override
+	public Iterable<Edge> adjR(int v) {
+		return adjR.get(v);
+	}
+
+	@Override
+	public int weight(int v, int w) {
+		return adjM[v][w];
+	}
+}
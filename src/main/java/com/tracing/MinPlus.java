@@ -0,0 +1,218 @@
+package com.tracing;
+
+import com.tracing.model.graph.Edge;
+
+import java.util.Arrays;
+
+/**
+ * The {@code MinPlus} class represents hop-constrained shortest paths in an
+ * edge-weighted graph computed over the min-plus semiring, where addition is
+ * {@code min} and multiplication is {@code +}. A single source is answered by a
+ * layered Bellman-Ford relaxation over the adjacency lists, and all pairs by
+ * powers of the min-plus adjacency matrix, which suits small dense graphs.
+ * Only paths of at least one hop are considered, so the distance from a vertex
+ * to itself is its shortest cycle. Both run on the internal ids of the
+ * backend, and only the source vertex and the lengths found are translated.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+public final class MinPlus {
+	/**
+	 * Latency of a missing path. Half of {@code Integer.MAX_VALUE} so that the sum
+	 * of two latencies never overflows.
+	 */
+	static final int INF = Integer.MAX_VALUE / 2;
+
+	private MinPlus() {
+	}
+
+	/**
+	 * Returns the length of the shortest path of at most {@code hops} hops from
+	 * the source vertex {@code src} to the destination vertex {@code dst}.
+	 *
+	 * @param graph graph
+	 * @param src   source vertex
+	 * @param dst   destination vertex
+	 * @param hops  maximum number of hops
+	 * @return length of the shortest path, or {@code Integer.MAX_VALUE} if there
+	 *         is none
+	 */
+	public static int shortestWithinHops(Graph graph, int src, int dst, int hops) {
+		return shortestWithinHops(graph, src, hops)[dst];
+	}
+
+	/**
+	 * Returns the lengths of the shortest paths of at most {@code hops} hops from
+	 * the source vertex {@code src} to every vertex. Layer {@code k} holds the
+	 * shortest paths of 1 to {@code k} hops and only vertices improved by the
+	 * previous layer are relaxed, so the search stops early once no path
+	 * improves.
+	 *
+	 * @param graph graph
+	 * @param src   source vertex
+	 * @param hops  maximum number of hops
+	 * @return lengths of the shortest paths, with {@code Integer.MAX_VALUE} where
+	 *         there is no path
+	 */
+	public static int[] shortestWithinHops(Graph graph, int src, int hops) {
+		GraphBackend backend = graph.getBackend();
+		int n = backend.capacity();
+		src = graph.toInternal(src);
+		int[] distTo = new int[n];
+		Arrays.fill(distTo, INF);
+		int[] changed = new int[n];
+		int numChanged = 0;
+		boolean[] marked = new boolean[n];
+		if (hops > 0) {
+			for (Edge e : backend.adj(src)) {
+				if (e.weight() < distTo[e.to()]) {
+					distTo[e.to()] = e.weight();
+					if (!marked[e.to()]) {
+						marked[e.to()] = true;
+						changed[numChanged++] = e.to();
+					}
+				}
+			}
+		}
+
+		int[] next = distTo.clone();
+		int[] nextChanged = new int[n];
+		for (int k = 2; k <= hops && numChanged > 0; k++) {
+			int numNextChanged = 0;
+			Arrays.fill(marked, false);
+			for (int i = 0; i < numChanged; i++) {
+				int v = changed[i];
+				for (Edge e : backend.adj(v)) {
+					int w = e.to();
+					int dist = distTo[v] + e.weight();
+					if (dist < next[w]) {
+						next[w] = dist;
+						if (!marked[w]) {
+							marked[w] = true;
+							nextChanged[numNextChanged++] = w;
+						}
+					}
+				}
+			}
+			System.arraycopy(next, 0, distTo, 0, n);
+			int[] t = changed;
+			changed = nextChanged;
+			nextChanged = t;
+			numChanged = numNextChanged;
+		}
+		int[] lengths = new int[graph.getNumOfVertices()];
+		for (int v = 0; v < lengths.length; v++) {
+			int dist = distTo[graph.toInternal(v)];
+			lengths[v] = dist >= INF ? Integer.MAX_VALUE : dist;
+		}
+		return lengths;
+	}
+
+	/**
+	 * Returns the lengths of the shortest paths of at most {@code hops} hops
+	 * between all pairs of vertices as a row-major matrix, computed as
+	 * {@code A (I + A)^(h - 1)} by repeated squaring, where {@code A} is the
+	 * min-plus adjacency matrix and {@code h} is {@code hops} capped at the
+	 * number of vertices, beyond which no shortest path gains a hop.
+	 *
+	 * @param graph graph
+	 * @param hops  maximum number of hops
+	 * @return row-major matrix of shortest path lengths, with
+	 *         {@code Integer.MAX_VALUE} where there is no path
+	 */
+	public static int[] allPairsWithinHops(Graph graph, int hops) {
+		int numOfVertices = graph.getNumOfVertices();
+		if (hops <= 0) {
+			int[] lengths = new int[numOfVertices * numOfVertices];
+			Arrays.fill(lengths, Integer.MAX_VALUE);
+			return lengths;
+		}
+		GraphBackend backend = graph.getBackend();
+		int n = backend.capacity();
+		int[] adjM = new int[n * n];
+		Arrays.fill(adjM, INF);
+		for (int v = 0; v < n; v++) {
+			for (Edge e : backend.adj(v)) {
+				adjM[v * n + e.to()] = Math.min(adjM[v * n + e.to()], e.weight());
+			}
+		}
+
+		int exp = Math.min(hops, n) - 1;
+		int[] result = identity(n);
+		int[] base = adjM.clone();
+		for (int v = 0; v < n; v++) {
+			base[v * n + v] = 0;
+		}
+		while (exp > 0) {
+			if ((exp & 1) == 1) {
+				result = multiply(result, base, n);
+			}
+			exp >>= 1;
+			if (exp > 0) {
+				base = multiply(base, base, n);
+			}
+		}
+		result = multiply(adjM, result, n);
+		int[] lengths = new int[numOfVertices * numOfVertices];
+		for (int v = 0; v < numOfVertices; v++) {
+			int row = graph.toInternal(v) * n;
+			for (int w = 0; w < numOfVertices; w++) {
+				int dist = result[row + graph.toInternal(w)];
+				lengths[v * numOfVertices + w] = dist >= INF ? Integer.MAX_VALUE : dist;
+			}
+		}
+		return lengths;
+	}
+
+	/**
+	 * Returns the min-plus identity matrix, with 0 on the diagonal and
+	 * {@link #INF} elsewhere.
+	 *
+	 * @param n number of vertices
+	 * @return row-major identity matrix
+	 */
+	static int[] identity(int n) {
+		int[] m = new int[n * n];
+		Arrays.fill(m, INF);
+		for (int v = 0; v < n; v++) {
+			m[v * n + v] = 0;
+		}
+		return m;
+	}
+
+	/**
+	 * Returns the min-plus product of two row-major matrices. The inner loop runs
+	 * over contiguous rows of {@code b} and {@code c} with a branch-free
+	 * {@code Math.min}, a shape the JIT compiles to SIMD instructions, and every
+	 * sum is clamped to {@link #INF} so that products never overflow.
+	 *
+	 * @param a left matrix
+	 * @param b right matrix
+	 * @param n number of rows and columns
+	 * @return row-major product matrix
+	 */
+	static int[] multiply(int[] a, int[] b, int n) {
+		int[] c = new int[n * n];
+		Arrays.fill(c, INF);
+		for (int i = 0; i < n; i++) {
+			int row = i * n;
+			for (int k = 0; k < n; k++) {
+				int aik = a[row + k];
+				if (aik >= INF) {
+					continue;
+				}
+				int col = k * n;
+				for (int j = 0; j < n; j++) {
+					c[row + j] = Math.min(c[row + j], aik + b[col + j]);
+				}
+			}
+			for (int j = 0; j < n; j++) {
+				c[row + j] = Math.min(c[row + j], INF);
+			}
+		}
+		return c;
+	}
+}
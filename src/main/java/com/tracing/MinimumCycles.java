@@ -0,0 +1,172 @@
+package com.tracing;
+
+import com.tracing.model.graph.Edge;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * The {@code MinimumCycles} class represents the shortest cycle through every
+ * vertex of an edge-weighted graph. A cycle through a vertex {@code v} stays
+ * within the strongly connected component of {@code v}, so vertices of a
+ * component without edges inside it are skipped and every Dijkstra search runs
+ * on the edges inside its component alone, indexed by the position of a vertex
+ * within its component. The scratch arrays are sized by the largest component
+ * and only the entries a search touched are reset, so many small components
+ * cost time and memory in proportion to their own size. The shortest cycle
+ * through {@code v} closes a shortest path from {@code v} to a vertex
+ * {@code u} with an edge from {@code u} back to {@code v}, and a search stops
+ * once no shorter cycle can be closed. The searches run on the internal ids of
+ * the backend, and the vertices are only translated by the accessors.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+public class MinimumCycles {
+	private final Graph graph;
+	private final int[] lengths;
+
+	/**
+	 * Computes the shortest cycle through every vertex of the graph {@code G}.
+	 *
+	 * @param graph graph
+	 */
+	public MinimumCycles(Graph graph) {
+		this.graph = graph;
+		GraphBackend backend = graph.getBackend();
+		int n = backend.capacity();
+		StronglyConnectedComponents scc = new StronglyConnectedComponents(backend);
+		lengths = new int[n];
+		Arrays.fill(lengths, Integer.MAX_VALUE);
+
+		int[] start = new int[scc.count() + 1];
+		for (int c = 0; c < scc.count(); c++) {
+			start[c + 1] = start[c] + scc.size(c);
+		}
+		int[] members = new int[n];
+		int[] local = new int[n];
+		int[] next = Arrays.copyOf(start, scc.count());
+		for (int v = 0; v < n; v++) {
+			int c = scc.id(v);
+			local[v] = next[c] - start[c];
+			members[next[c]++] = v;
+		}
+		int[] offsets = new int[n + 1];
+		for (int k = 0; k < n; k++) {
+			offsets[k + 1] = offsets[k];
+			for (Edge e : backend.adj(members[k])) {
+				if (scc.stronglyConnected(members[k], e.to())) {
+					offsets[k + 1]++;
+				}
+			}
+		}
+		int[] heads = new int[offsets[n]];
+		int[] weights = new int[offsets[n]];
+		for (int k = 0, j = 0; k < n; k++) {
+			for (Edge e : backend.adj(members[k])) {
+				if (scc.stronglyConnected(members[k], e.to())) {
+					heads[j] = local[e.to()];
+					weights[j++] = e.weight();
+				}
+			}
+		}
+
+		int largest = 0;
+		for (int c = 0; c < scc.count(); c++) {
+			largest = Math.max(largest, scc.size(c));
+		}
+		long[] distTo = new long[largest];
+		Arrays.fill(distTo, Long.MAX_VALUE);
+		int[] touched = new int[largest];
+		PriorityQueue<long[]> pq = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+		for (int c = 0; c < scc.count(); c++) {
+			if (offsets[start[c + 1]] == offsets[start[c]]) {
+				continue;
+			}
+			for (int s = 0; s < scc.size(c); s++) {
+				long best = Integer.MAX_VALUE;
+				int numOfTouched = 0;
+				distTo[s] = 0;
+				touched[numOfTouched++] = s;
+				pq.add(new long[] { 0, s });
+				while (!pq.isEmpty()) {
+					long[] node = pq.poll();
+					int u = (int) node[1];
+					if (node[0] >= best) {
+						break;
+					}
+					if (node[0] != distTo[u]) {
+						continue;
+					}
+					for (int j = offsets[start[c] + u]; j < offsets[start[c] + u + 1]; j++) {
+						int w = heads[j];
+						long d = node[0] + weights[j];
+						if (w == s) {
+							best = Math.min(best, d);
+						} else if (d < distTo[w]) {
+							if (distTo[w] == Long.MAX_VALUE) {
+								touched[numOfTouched++] = w;
+							}
+							distTo[w] = d;
+							pq.add(new long[] { d, w });
+						}
+					}
+				}
+				pq.clear();
+				for (int k = 0; k < numOfTouched; k++) {
+					distTo[touched[k]] = Long.MAX_VALUE;
+				}
+				lengths[members[start[c] + s]] = (int) best;
+			}
+		}
+	}
+
+	/**
+	 * Returns the length of the shortest cycle through vertex {@code v}.
+	 *
+	 * @param v vertex
+	 * @return length of the shortest cycle, or {@code Integer.MAX_VALUE} if there
+	 *         is none
+	 */
+	public int lengthThrough(int v) {
+		return lengths[graph.toInternal(v)];
+	}
+
+	/**
+	 * Returns the length of the shortest cycle through vertex {@code v} of the
+	 * graph {@code G} with a single Dijkstra search from {@code v}.
+	 *
+	 * @param graph graph
+	 * @param v     vertex
+	 * @return length of the shortest cycle, or {@code Integer.MAX_VALUE} if there
+	 *         is none
+	 */
+	public static int lengthThrough(Graph graph, int v) {
+		GraphBackend backend = graph.getBackend();
+		int i = graph.toInternal(v);
+		return close(backend, i, new ShortestPath(backend, i, false));
+	}
+
+	/**
+	 * Closes the shortest paths from internal id {@code v} with the edges back to
+	 * {@code v} and returns the shortest resulting cycle.
+	 *
+	 * @param backend backend
+	 * @param v       internal id of the vertex
+	 * @param sp      shortest paths from {@code v} over internal ids
+	 * @return length of the shortest cycle, or {@code Integer.MAX_VALUE} if there
+	 *         is none
+	 */
+	private static int close(GraphBackend backend, int v, ShortestPath sp) {
+		long best = Integer.MAX_VALUE;
+		for (Edge e : backend.adjR(v)) {
+			int u = e.to();
+			if (sp.distTo(u) != Integer.MAX_VALUE) {
+				best = Math.min(best, (long) sp.distTo(u) + e.weight());
+			}
+		}
+		return (int) best;
+	}
+}
@@ -0,0 +1,471 @@
+package com.tracing;
+
+import com.tracing.model.input.ExactHopsInput;
+import com.tracing.model.input.GraphInput;
+import com.tracing.model.input.InputParser;
+import com.tracing.model.input.ShortestPathInput;
+import com.tracing.model.input.TracingInput;
+import com.tracing.model.input.UptoHopsInput;
+import com.tracing.model.output.QueryResult;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.function.BinaryOperator;
+
+/**
+ * The {@code PartitionCoordinator} class represents the coordinator of the
+ * queries on a graph cut by {@link Partitioning} and served by one
+ * {@link PartitionWorker} per partition. A query runs in rounds: every worker
+ * advances the query on its partition and returns the values of its boundary
+ * vertices, which the coordinator merges and routes to their owners for the
+ * next round.
+ * <ul>
+ * <li>Shortest paths and reachability run a Dijkstra search on every partition
+ * until no boundary distance improves, dropping the distances which cannot
+ * beat the best distance to the destination.</li>
+ * <li>Hop counts advance one hop per round for every partition, until the hops
+ * are exhausted or no path is left.</li>
+ * </ul>
+ * Results match {@link TraceProcessor} and {@link Graph#hasPath(int, int)}.
+ * Requests to the workers of a round are sent before any response is read, so
+ * the partitions are processed in parallel. When a worker answers with an
+ * error, or cannot be reached, the query is closed on every worker and fails
+ * with the cause.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+public class PartitionCoordinator implements Closeable {
+	private final Partitioning partitioning;
+	private final Socket[] sockets;
+	private final DataInputStream[] in;
+	private final DataOutputStream[] out;
+	private final int[] pending;
+	private long nextQueryId;
+
+	/**
+	 * Connects to the workers of every partition.
+	 *
+	 * @param partitioning partitioning of the graph
+	 * @param workers      address of the worker of every partition, by partition
+	 */
+	public PartitionCoordinator(Partitioning partitioning, List<InetSocketAddress> workers) {
+		if (workers.size() != partitioning.numOfPartitions()) {
+			throw new IllegalArgumentException(
+					"Expected " + partitioning.numOfPartitions() + " workers but got " + workers.size());
+		}
+		this.partitioning = partitioning;
+		sockets = new Socket[workers.size()];
+		in = new DataInputStream[workers.size()];
+		out = new DataOutputStream[workers.size()];
+		pending = new int[workers.size()];
+		try {
+			for (int p = 0; p < workers.size(); p++) {
+				sockets[p] = new Socket(workers.get(p).getAddress(), workers.get(p).getPort());
+				sockets[p].setTcpNoDelay(true);
+				in[p] = new DataInputStream(new BufferedInputStream(sockets[p].getInputStream()));
+				out[p] = new DataOutputStream(new BufferedOutputStream(sockets[p].getOutputStream()));
+			}
+		} catch (IOException e) {
+			close();
+			throw new RuntimeException("Failed to connect to the partition workers", e);
+		}
+	}
+
+	/**
+	 * Runs the hop and shortest path cases of the input files on workers started
+	 * with {@link PartitionWorker#main(String[])}, one per partition with the
+	 * graph spread over the partitions by vertex id.
+	 *
+	 * @param args input file followed by the port of the worker of every
+	 *             partition
+	 * @throws IOException if the results cannot be written
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.out.println("Usage: PartitionCoordinator <input file> <port of partition 0> [<port> ...]");
+			System.exit(1);
+		}
+		TracingInput tracingInput = new InputParser().parse(args[0]);
+		GraphInput graphInput = tracingInput.getGraphInput();
+		List<InetSocketAddress> workers = new ArrayList<>();
+		for (int p = 1; p < args.length; p++) {
+			workers.add(new InetSocketAddress("localhost", Integer.parseInt(args[p])));
+		}
+		try (PartitionCoordinator coordinator = new PartitionCoordinator(
+				Partitioning.hashed(graphInput, workers.size()), workers);
+				ResultSink sink = new TextSink(ResultSink.console())) {
+			long id = 0;
+			long start = System.nanoTime();
+			long result = coordinator.findUptoHops(tracingInput.getUptoHopsInput());
+			sink.write(QueryResult.of(++id, QueryResult.Type.UPTO_HOPS, result, System.nanoTime() - start));
+			start = System.nanoTime();
+			result = coordinator.findExactHops(tracingInput.getExactHopsInput());
+			sink.write(QueryResult.of(++id, QueryResult.Type.EXACT_HOPS, result, System.nanoTime() - start));
+			for (ShortestPathInput shortestPathInput : tracingInput.getShortestPathInput()) {
+				start = System.nanoTime();
+				OptionalLong latency = coordinator.findShortestPathIfExists(shortestPathInput);
+				sink.write(QueryResult.of(++id, QueryResult.Type.SHORTEST_PATH, latency, System.nanoTime() - start));
+			}
+		}
+	}
+
+	/**
+	 * Find shortest trace from the source vertex {@code src} to the destination
+	 * vertex {@code dst} across the partitions. When {@code src} and {@code dst}
+	 * are the same vertex the shortest trace is the shortest cycle through it.
+	 *
+	 * @param shortestPathInput shortest path input object
+	 * @return shortest trace, 0 if there is none
+	 */
+	public long findShortestPath(ShortestPathInput shortestPathInput) {
+		return findShortestPathIfExists(shortestPathInput).orElse(0);
+	}
+
+	/**
+	 * Find shortest trace from the source vertex {@code src} to the destination
+	 * vertex {@code dst} across the partitions, telling a trace of latency 0
+	 * apart from no trace at all.
+	 *
+	 * @param shortestPathInput shortest path input object
+	 * @return shortest trace, empty if there is none
+	 */
+	public OptionalLong findShortestPathIfExists(ShortestPathInput shortestPathInput) {
+		int src = shortestPathInput.getSrc();
+		int dst = shortestPathInput.getDst();
+		if (src >= partitioning.numOfVertices() || dst >= partitioning.numOfVertices()) {
+			return OptionalLong.empty();
+		}
+		long result = search(src, dst, false);
+		return result == Long.MAX_VALUE ? OptionalLong.empty() : OptionalLong.of(result);
+	}
+
+	/**
+	 * Returns if a path exists from source vertex to destination vertex across
+	 * the partitions.
+	 *
+	 * @param src source vertex
+	 * @param dst destination vertex
+	 * @return path exists from source vertex {@code src} to destination vertex
+	 *         {@code dst} as a boolean
+	 */
+	public boolean hasPath(int src, int dst) {
+		if (src >= partitioning.numOfVertices() || dst >= partitioning.numOfVertices()) {
+			return false;
+		}
+		return search(src, dst, true) != Long.MAX_VALUE;
+	}
+
+	/**
+	 * Find the number of paths from the source vertex {@code src} to the
+	 * destination vertex {@code dst} across the partitions for all values upto
+	 * the given {@code hops} value.
+	 *
+	 * @param uptoHopsInput upto hops input object
+	 * @return number of paths
+	 */
+	public long findUptoHops(UptoHopsInput uptoHopsInput) {
+		return count(uptoHopsInput.getSrc(), uptoHopsInput.getDst(), uptoHopsInput.getHops(), false);
+	}
+
+	/**
+	 * Find the number of paths from the source vertex {@code src} to the
+	 * destination vertex {@code dst} across the partitions for an exact
+	 * {@code hops} value.
+	 *
+	 * @param exactHopsInput exact hops input object
+	 * @return number of paths
+	 */
+	public long findExactHops(ExactHopsInput exactHopsInput) {
+		return count(exactHopsInput.getSrc(), exactHopsInput.getDst(), exactHopsInput.getHops(), true);
+	}
+
+	/**
+	 * Closes the connections to the workers.
+	 */
+	@Override
+	public void close() {
+		for (Socket socket : sockets) {
+			try {
+				if (socket != null) {
+					socket.close();
+				}
+			} catch (IOException e) {
+				// already closed
+			}
+		}
+	}
+
+	/**
+	 * Computes the length of the shortest path of at least one hop from the
+	 * source vertex {@code src} to the destination vertex {@code dst}.
+	 *
+	 * @param src  source vertex
+	 * @param dst  destination vertex
+	 * @param unit count hops instead of latency
+	 * @return length of the shortest path, or {@code Long.MAX_VALUE} if there is
+	 *         none
+	 */
+	private synchronized long search(int src, int dst, boolean unit) {
+		long id = nextQueryId++;
+		try {
+			for (int p = 0; p < out.length; p++) {
+				request(p, PartitionWorker.OPEN_SEARCH, id);
+				out[p].writeInt(src);
+				out[p].writeInt(dst);
+				out[p].writeBoolean(unit);
+				out[p].flush();
+			}
+			long best = Long.MAX_VALUE;
+			Map<Integer, Long> messages = new HashMap<>();
+			boolean[] sent = new boolean[out.length];
+			Arrays.fill(sent, true);
+			while (true) {
+				for (int p = 0; p < out.length; p++) {
+					if (sent[p]) {
+						response(p);
+						best = Math.min(best, in[p].readLong());
+						in[p].readLong();
+						merge(messages, PartitionWorker.readValues(in[p]), Math::min);
+					}
+				}
+				if (messages.containsKey(dst)) {
+					best = Math.min(best, messages.get(dst));
+				}
+				long bound = best;
+				messages.values().removeIf(d -> d >= bound);
+				if (messages.isEmpty()) {
+					break;
+				}
+				sent = send(PartitionWorker.RELAX, id, route(messages), false);
+				messages = new HashMap<>();
+			}
+			closeQuery(id);
+			return best;
+		} catch (IOException e) {
+			abort(id);
+			throw new RuntimeException("Query " + id + " failed on the partition workers", e);
+		}
+	}
+
+	/**
+	 * Counts the paths of 1 up to {@code hops} hops, or of exactly {@code hops}
+	 * hops, from the source vertex {@code src} to the destination vertex
+	 * {@code dst}. Counts saturate at {@code Long.MAX_VALUE}.
+	 *
+	 * @param src   source vertex
+	 * @param dst   destination vertex
+	 * @param hops  number of hops
+	 * @param exact count only the paths of exactly {@code hops} hops
+	 * @return number of paths
+	 */
+	private synchronized long count(int src, int dst, int hops, boolean exact) {
+		if (src >= partitioning.numOfVertices() || dst >= partitioning.numOfVertices()) {
+			return 0;
+		}
+		long id = nextQueryId++;
+		try {
+			for (int p = 0; p < out.length; p++) {
+				request(p, PartitionWorker.OPEN_COUNT, id);
+				out[p].writeInt(src);
+				out[p].writeInt(dst);
+				out[p].flush();
+			}
+			for (int p = 0; p < in.length; p++) {
+				response(p);
+				in[p].readLong();
+				in[p].readLong();
+				PartitionWorker.readValues(in[p]);
+			}
+
+			long result = 0;
+			Map<Integer, Long> messages = new HashMap<>();
+			for (long k = 1; k <= hops; k++) {
+				send(PartitionWorker.STEP, id, route(messages), true);
+				messages = new HashMap<>();
+				long atDst = 0, active = 0;
+				for (int p = 0; p < in.length; p++) {
+					response(p);
+					atDst = GraphPartition.add(atDst, in[p].readLong());
+					active += in[p].readLong();
+					merge(messages, PartitionWorker.readValues(in[p]), GraphPartition::add);
+				}
+				atDst = GraphPartition.add(atDst, messages.getOrDefault(dst, 0L));
+				if (!exact || k == hops) {
+					result = GraphPartition.add(result, atDst);
+				}
+				if (active == 0 && messages.isEmpty()) {
+					break;
+				}
+			}
+			closeQuery(id);
+			return result;
+		} catch (IOException e) {
+			abort(id);
+			throw new RuntimeException("Query " + id + " failed on the partition workers", e);
+		}
+	}
+
+	/**
+	 * Groups vertex values by the partition owning the vertex.
+	 *
+	 * @param messages value of every vertex
+	 * @return values of the vertices owned by every partition
+	 */
+	private List<Map<Integer, Long>> route(Map<Integer, Long> messages) {
+		List<Map<Integer, Long>> routed = new ArrayList<>(out.length);
+		for (int p = 0; p < out.length; p++) {
+			routed.add(new HashMap<>());
+		}
+		for (Map.Entry<Integer, Long> message : messages.entrySet()) {
+			routed.get(partitioning.owner(message.getKey())).put(message.getKey(), message.getValue());
+		}
+		return routed;
+	}
+
+	/**
+	 * Sends a request with vertex values to the workers.
+	 *
+	 * @param op     request type
+	 * @param id     query id
+	 * @param routed values of the vertices owned by every partition
+	 * @param all    send to every worker, not only to those receiving values
+	 * @return workers a request was sent to
+	 * @throws IOException if a worker cannot be reached
+	 */
+	private boolean[] send(byte op, long id, List<Map<Integer, Long>> routed, boolean all) throws IOException {
+		boolean[] sent = new boolean[out.length];
+		for (int p = 0; p < out.length; p++) {
+			if (all || !routed.get(p).isEmpty()) {
+				request(p, op, id);
+				PartitionWorker.writeValues(out[p], routed.get(p));
+				out[p].flush();
+				sent[p] = true;
+			}
+		}
+		return sent;
+	}
+
+	/**
+	 * Closes a query on every worker.
+	 *
+	 * @param id query id
+	 * @throws IOException if a worker cannot be reached or fails
+	 */
+	private void closeQuery(long id) throws IOException {
+		for (int p = 0; p < out.length; p++) {
+			request(p, PartitionWorker.CLOSE, id);
+			out[p].flush();
+		}
+		for (int p = 0; p < in.length; p++) {
+			response(p);
+			in[p].readLong();
+			in[p].readLong();
+			PartitionWorker.readValues(in[p]);
+		}
+	}
+
+	/**
+	 * Closes a failed query on every worker, skipping the responses still
+	 * pending. The connection to a worker which cannot be reached is closed.
+	 *
+	 * @param id query id
+	 */
+	private void abort(long id) {
+		for (int p = 0; p < out.length; p++) {
+			try {
+				request(p, PartitionWorker.CLOSE, id);
+				out[p].flush();
+				while (pending[p] > 0) {
+					try {
+						response(p);
+						in[p].readLong();
+						in[p].readLong();
+						PartitionWorker.readValues(in[p]);
+					} catch (WorkerException e) {
+						// the query may not be open on the worker
+					}
+				}
+			} catch (IOException e) {
+				try {
+					sockets[p].close();
+				} catch (IOException ignored) {
+					// already closed
+				}
+			}
+		}
+	}
+
+	/**
+	 * Starts a request to a worker.
+	 *
+	 * @param p  partition
+	 * @param op request type
+	 * @param id query id
+	 * @throws IOException if the worker cannot be reached
+	 */
+	private void request(int p, byte op, long id) throws IOException {
+		out[p].writeByte(op);
+		out[p].writeLong(id);
+		pending[p]++;
+	}
+
+	/**
+	 * Starts reading the response of a worker to its oldest pending request.
+	 *
+	 * @param p partition
+	 * @throws IOException if the worker cannot be reached or answers with an
+	 *                     error
+	 */
+	private void response(int p) throws IOException {
+		byte status = in[p].readByte();
+		pending[p]--;
+		if (status != PartitionWorker.OK) {
+			throw new WorkerException("Partition " + p + " failed: " + in[p].readUTF());
+		}
+	}
+
+	/**
+	 * Merges vertex values into a message.
+	 *
+	 * @param messages value of every vertex, updated in place
+	 * @param values   values to merge
+	 * @param combine  function combining two values of a vertex
+	 */
+	private static void merge(Map<Integer, Long> messages, Map<Integer, Long> values, BinaryOperator<Long> combine) {
+		for (Map.Entry<Integer, Long> value : values.entrySet()) {
+			messages.merge(value.getKey(), value.getValue(), combine);
+		}
+	}
+
+	/**
+	 * The {@code WorkerException} class represents an error answered by a
+	 * worker, after which its connection can still be used.
+	 */
+	private static final class WorkerException extends IOException {
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Initializes the exception with the failure reported by the worker.
+		 *
+		 * @param message failure of the request
+		 */
+		private WorkerException(String message) {
+			super(message);
+		}
+	}
+}
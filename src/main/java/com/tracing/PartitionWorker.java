@@ -0,0 +1,311 @@
+package com.tracing;
+
+import com.tracing.model.input.GraphInput;
+import com.tracing.model.input.InputParser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code PartitionWorker} class represents a server answering the part of
+ * the queries of a {@link PartitionCoordinator} on one {@link GraphPartition}.
+ * It listens on a loopback socket, so workers can run in the coordinator's JVM
+ * or in separate local JVMs started with {@link #main(String[])}. Every request
+ * names a query, whose state on the partition is kept until the query is
+ * closed, and every response starts with a status. A successful response
+ * carries the value of the destination vertex if the partition owns it, the
+ * number of active owned vertices and the values of the boundary vertices; an
+ * error carries the failure of the request, and ends the connection when the
+ * rest of the request cannot be read.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+public class PartitionWorker implements Closeable {
+	static final byte OPEN_SEARCH = 1;
+	static final byte RELAX = 2;
+	static final byte OPEN_COUNT = 3;
+	static final byte STEP = 4;
+	static final byte CLOSE = 5;
+	static final byte OK = 0;
+	static final byte ERROR = 1;
+	private final GraphPartition partition;
+	private final ServerSocket serverSocket;
+	private final Thread acceptor;
+	private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Starts a worker for the given partition on a loopback port.
+	 *
+	 * @param partition partition of the graph
+	 * @param port      port, or 0 for any free port
+	 * @throws IOException if the port cannot be bound
+	 */
+	public PartitionWorker(GraphPartition partition, int port) throws IOException {
+		this.partition = partition;
+		serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+		acceptor = new Thread(this::accept, "partition-worker-" + partition.index());
+		acceptor.setDaemon(true);
+		acceptor.start();
+	}
+
+	/**
+	 * Runs a worker for one partition of the graph in an input file, spread over
+	 * the partitions by vertex id, until the process is stopped.
+	 *
+	 * @param args input file, number of partitions, partition and optional port
+	 * @throws IOException          if the port cannot be bound
+	 * @throws InterruptedException if the worker is interrupted
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		if (args.length < 3) {
+			System.out.println("Usage: PartitionWorker <input file> <number of partitions> <partition> [port]");
+			System.exit(1);
+		}
+		GraphInput graphInput = new InputParser().parse(args[0]).getGraphInput();
+		Partitioning partitioning = Partitioning.hashed(graphInput, Integer.parseInt(args[1]));
+		PartitionWorker worker = new PartitionWorker(partitioning.partition(graphInput, Integer.parseInt(args[2])),
+				args.length > 3 ? Integer.parseInt(args[3]) : 0);
+		System.out.println("Partition " + args[2] + " listening on port " + worker.getAddress().getPort());
+		worker.acceptor.join();
+	}
+
+	/**
+	 * Returns the address the worker listens on.
+	 *
+	 * @return loopback address and port
+	 */
+	public InetSocketAddress getAddress() {
+		return (InetSocketAddress) serverSocket.getLocalSocketAddress();
+	}
+
+	/**
+	 * Stops the worker and closes its connections.
+	 */
+	@Override
+	public void close() throws IOException {
+		serverSocket.close();
+		for (Socket socket : connections) {
+			socket.close();
+		}
+	}
+
+	/**
+	 * Accepts connections until the worker is closed, serving each on its own
+	 * thread.
+	 */
+	private void accept() {
+		while (!serverSocket.isClosed()) {
+			try {
+				Socket socket = serverSocket.accept();
+				socket.setTcpNoDelay(true);
+				connections.add(socket);
+				Thread thread = new Thread(() -> serve(socket), acceptor.getName() + "-connection");
+				thread.setDaemon(true);
+				thread.start();
+			} catch (IOException e) {
+				// the worker was closed
+			}
+		}
+	}
+
+	/**
+	 * Answers the requests of one connection until it is closed. The queries are
+	 * private to the connection, so every coordinator numbers its own.
+	 *
+	 * @param socket connection
+	 */
+	private void serve(Socket socket) {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+			Map<Long, QueryState> queries = new HashMap<>();
+			boolean open = true;
+			while (open) {
+				open = handle(in.readByte(), in, out, queries);
+				out.flush();
+			}
+		} catch (EOFException e) {
+			// the coordinator closed the connection
+		} catch (IOException e) {
+			// the connection or the worker was closed
+		} finally {
+			connections.remove(socket);
+		}
+	}
+
+	/**
+	 * Answers one request. A request which fails is answered by an error, so the
+	 * coordinator can close its queries on the other partitions.
+	 *
+	 * @param op      request type
+	 * @param in      request stream
+	 * @param out     response stream
+	 * @param queries open queries of the connection
+	 * @return whether the next request can be read
+	 * @throws IOException if the connection fails
+	 */
+	private boolean handle(byte op, DataInputStream in, DataOutputStream out, Map<Long, QueryState> queries)
+			throws IOException {
+		if (op < OPEN_SEARCH || op > CLOSE) {
+			writeError(out, "Unknown request " + op);
+			return false;
+		}
+		long id = in.readLong();
+		boolean open = op == OPEN_SEARCH || op == OPEN_COUNT;
+		int src = open ? in.readInt() : -1;
+		int dst = open ? in.readInt() : -1;
+		boolean unit = op == OPEN_SEARCH && in.readBoolean();
+		Map<Integer, Long> incoming = op == RELAX || op == STEP ? readValues(in) : Collections.emptyMap();
+
+		QueryState query;
+		Map<Integer, Long> outgoing = Collections.emptyMap();
+		try {
+			switch (op) {
+			case OPEN_SEARCH:
+				query = new QueryState(partition, dst, unit, Long.MAX_VALUE);
+				queries.put(id, query);
+				outgoing = partition.search(query.values, query.boundary, Collections.emptyMap(), src, query.unit);
+				break;
+			case RELAX:
+				query = find(queries, id, false);
+				outgoing = partition.search(query.values, query.boundary, incoming, -1, query.unit);
+				break;
+			case OPEN_COUNT:
+				query = new QueryState(partition, dst, false, 0);
+				queries.put(id, query);
+				if (partition.localId(src) >= 0) {
+					query.values[partition.localId(src)] = 1;
+				}
+				break;
+			case STEP:
+				query = find(queries, id, false);
+				outgoing = partition.step(query.values, incoming);
+				break;
+			default:
+				query = find(queries, id, true);
+				break;
+			}
+		} catch (RuntimeException e) {
+			writeError(out, String.valueOf(e));
+			return true;
+		}
+
+		long active = 0;
+		for (long value : query.values) {
+			if (value != query.empty) {
+				active++;
+			}
+		}
+		out.writeByte(OK);
+		out.writeLong(query.dst >= 0 ? query.values[query.dst] : query.empty);
+		out.writeLong(active);
+		writeValues(out, outgoing);
+		return true;
+	}
+
+	/**
+	 * Writes an error response.
+	 *
+	 * @param out     response stream
+	 * @param message failure of the request
+	 * @throws IOException if the connection fails
+	 */
+	private static void writeError(DataOutputStream out, String message) throws IOException {
+		out.writeByte(ERROR);
+		out.writeUTF(message);
+	}
+
+	/**
+	 * Returns the state of an open query.
+	 *
+	 * @param queries open queries of the connection
+	 * @param id      query id
+	 * @param remove  close the query
+	 * @return state of the query
+	 * @throws IllegalArgumentException if the query is not open
+	 */
+	private static QueryState find(Map<Long, QueryState> queries, long id, boolean remove) {
+		QueryState query = remove ? queries.remove(id) : queries.get(id);
+		if (query == null) {
+			throw new IllegalArgumentException("Unknown query " + id);
+		}
+		return query;
+	}
+
+	/**
+	 * Reads vertex values of a message.
+	 *
+	 * @param in stream
+	 * @return value of every vertex
+	 * @throws IOException if the connection fails
+	 */
+	static Map<Integer, Long> readValues(DataInputStream in) throws IOException {
+		int n = in.readInt();
+		Map<Integer, Long> values = new HashMap<>();
+		for (int i = 0; i < n; i++) {
+			values.put(in.readInt(), in.readLong());
+		}
+		return values;
+	}
+
+	/**
+	 * Writes vertex values of a message.
+	 *
+	 * @param out    stream
+	 * @param values value of every vertex
+	 * @throws IOException if the connection fails
+	 */
+	static void writeValues(DataOutputStream out, Map<Integer, Long> values) throws IOException {
+		out.writeInt(values.size());
+		for (Map.Entry<Integer, Long> value : values.entrySet()) {
+			out.writeInt(value.getKey());
+			out.writeLong(value.getValue());
+		}
+	}
+
+	/**
+	 * The {@code QueryState} class represents the state of a query on the
+	 * partition: the value of every owned vertex, a distance or a path count, and
+	 * the last distance sent for every boundary vertex.
+	 */
+	private static final class QueryState {
+		private final long[] values;
+		private final Map<Integer, Long> boundary = new HashMap<>();
+		private final int dst;
+		private final boolean unit;
+		private final long empty;
+
+		/**
+		 * Initializes the state of a query.
+		 *
+		 * @param partition partition of the graph
+		 * @param dst       destination vertex
+		 * @param unit      count hops instead of latency
+		 * @param empty     value of an unreached vertex
+		 */
+		private QueryState(GraphPartition partition, int dst, boolean unit, long empty) {
+			this.values = new long[partition.size()];
+			Arrays.fill(values, empty);
+			this.dst = Math.max(partition.localId(dst), -1);
+			this.unit = unit;
+			this.empty = empty;
+		}
+	}
+}
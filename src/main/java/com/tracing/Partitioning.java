@@ -0,0 +1,116 @@
+package com.tracing;
+
+import com.tracing.model.graph.Edge;
+import com.tracing.model.input.GraphInput;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code Partitioning} class represents an edge-cut of an edge-weighted
+ * graph into partitions by vertex ownership: every vertex is owned by one
+ * partition, and a partition keeps the edges from the vertices it owns, so an
+ * edge to a vertex owned by another partition crosses the cut. The ownership
+ * is typically the team or region owning a service.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+public final class Partitioning {
+	private final int[] owner;
+	private final int numOfPartitions;
+
+	/**
+	 * Initializes a partitioning with the given owner of every vertex.
+	 *
+	 * @param owner           partition owning every vertex, indexed by vertex
+	 * @param numOfPartitions number of partitions
+	 */
+	public Partitioning(int[] owner, int numOfPartitions) {
+		for (int v = 0; v < owner.length; v++) {
+			if (owner[v] < 0 || owner[v] >= numOfPartitions) {
+				throw new IllegalArgumentException("Vertex " + v + " is owned by unknown partition " + owner[v]);
+			}
+		}
+		this.owner = owner.clone();
+		this.numOfPartitions = numOfPartitions;
+	}
+
+	/**
+	 * Returns a partitioning of the vertices of a graph spread over the
+	 * partitions by vertex id.
+	 *
+	 * @param graphInput      graph with edges input
+	 * @param numOfPartitions number of partitions
+	 * @return partitioning
+	 */
+	public static Partitioning hashed(GraphInput graphInput, int numOfPartitions) {
+		int capacity = 0;
+		for (Edge e : graphInput.getEdges()) {
+			capacity = Math.max(capacity, Math.max(e.from(), e.to()) + 1);
+		}
+		int[] owner = new int[capacity];
+		for (int v = 0; v < capacity; v++) {
+			owner[v] = v % numOfPartitions;
+		}
+		return new Partitioning(owner, numOfPartitions);
+	}
+
+	/**
+	 * Returns the number of partitions.
+	 *
+	 * @return number of partitions
+	 */
+	public int numOfPartitions() {
+		return numOfPartitions;
+	}
+
+	/**
+	 * Returns the number of vertex ids; every vertex is less than it.
+	 *
+	 * @return number of vertex ids
+	 */
+	public int numOfVertices() {
+		return owner.length;
+	}
+
+	/**
+	 * Returns the partition owning vertex {@code v}.
+	 *
+	 * @param v vertex
+	 * @return partition owning vertex {@code v}
+	 */
+	public int owner(int v) {
+		return owner[v];
+	}
+
+	/**
+	 * Returns the partition {@code index} of a graph with the vertices it owns and
+	 * the edges from them.
+	 *
+	 * @param graphInput graph with edges input
+	 * @param index      partition
+	 * @return partition of the graph
+	 */
+	public GraphPartition partition(GraphInput graphInput, int index) {
+		List<Integer> vertices = new ArrayList<>();
+		for (int v = 0; v < owner.length; v++) {
+			if (owner[v] == index) {
+				vertices.add(v);
+			}
+		}
+		List<Edge> edges = new ArrayList<>();
+		for (Edge e : graphInput.getEdges()) {
+			if (Math.max(e.from(), e.to()) >= owner.length) {
+				throw new IllegalArgumentException(
+						"Edge from " + e.from() + " to " + e.to() + " has a vertex outside the partitioning");
+			}
+			if (owner[e.from()] == index) {
+				edges.add(e);
+			}
+		}
+		return new GraphPartition(index, vertices.stream().mapToInt(Integer::intValue).toArray(), edges);
+	}
+}
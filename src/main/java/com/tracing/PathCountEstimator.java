@@ -0,0 +1,443 @@
+package com.tracing;
+
+import com.tracing.model.graph.Edge;
+import com.tracing.model.input.ExactHopsInput;
+import com.tracing.model.input.SamplingBudget;
+import com.tracing.model.input.UptoHopsInput;
+import com.tracing.model.input.UptoLatencyInput;
+import com.tracing.model.output.PathCountEstimate;
+import com.tracing.model.output.QueryPlan.Query;
+
+import java.util.SplittableRandom;
+
+/**
+ * The {@code PathCountEstimator} class represents an approximate count of the
+ * paths from a source vertex {@code src} to a destination vertex {@code dst} in
+ * an edge-weighted graph, for budgets where the exact count is out of
+ * {@code long} range or too costly. The paths are those counted by
+ * {@link QueryPlanner}, so it answers the same queries.
+ * <p>
+ * Every sample is a random walk from {@code src} which only takes the edges
+ * that still lead to a path: to {@code dst} within the limit, or to a vertex
+ * whose {@link SearchBounds} to {@code dst} are within the remaining hops or
+ * latency. An edge is chosen with a probability proportional to the number of
+ * paths after it, counted up to a horizon and extrapolated beyond it, and the
+ * walk counts the inverse of its probability every time it reaches
+ * {@code dst}. The mean of the samples is then an unbiased estimate of the
+ * number of paths, whatever the choice of probabilities, and its variance
+ * shrinks as the probabilities approach the true counts: a query within the
+ * horizon is answered exactly, and beyond it the estimate is good while the
+ * horizon spans a few of the longest edges. The interval assumes the mean of
+ * the samples is normal, which is optimistic for few samples of a heavy
+ * tail. The walks run on the internal ids of the backend.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+public final class PathCountEstimator {
+	private static final double DEFAULT_CONFIDENCE = 0.95;
+	private static final int MIN_SAMPLES = 256;
+	private static final int BATCH_SIZE = 64;
+	private static final int TABLE_CELLS = 1 << 21;
+	private final Graph graph;
+	private final int[] offsets;
+	private final int[] targets;
+	private final int[] weights;
+	private final int maxOutDegree;
+	private final int tableCells;
+
+	/**
+	 * Initializes an estimator for a graph.
+	 *
+	 * @param graph graph
+	 */
+	public PathCountEstimator(Graph graph) {
+		this(graph, TABLE_CELLS);
+	}
+
+	/**
+	 * Initializes an estimator for a graph with a bound on the cells of the table
+	 * of continuations, one per vertex and unit of depth up to the horizon.
+	 *
+	 * @param graph      graph
+	 * @param tableCells maximum number of cells of the table
+	 */
+	PathCountEstimator(Graph graph, int tableCells) {
+		this.graph = graph;
+		this.tableCells = tableCells;
+		GraphBackend backend = graph.getBackend();
+		int n = backend.capacity();
+		offsets = new int[n + 1];
+		int max = 0;
+		for (int v = 0; v < n; v++) {
+			for (Edge e : backend.adj(v)) {
+				offsets[v + 1]++;
+			}
+			max = Math.max(max, offsets[v + 1]);
+			offsets[v + 1] += offsets[v];
+		}
+		maxOutDegree = max;
+		targets = new int[offsets[n]];
+		weights = new int[offsets[n]];
+		for (int v = 0, j = 0; v < n; v++) {
+			for (Edge e : backend.adj(v)) {
+				targets[j] = e.to();
+				weights[j++] = e.weight();
+			}
+		}
+	}
+
+	/**
+	 * Estimates the number of paths of 1 up to {@code hops} hops.
+	 *
+	 * @param uptoHopsInput upto hops input object
+	 * @param budget        error and time budget
+	 * @return estimated number of paths
+	 */
+	public PathCountEstimate uptoHops(UptoHopsInput uptoHopsInput, SamplingBudget budget) {
+		return estimate(Query.UPTO_HOPS, uptoHopsInput.getSrc(), uptoHopsInput.getDst(), uptoHopsInput.getHops(),
+				budget);
+	}
+
+	/**
+	 * Estimates the number of paths of exactly {@code hops} hops.
+	 *
+	 * @param exactHopsInput exact hops input object
+	 * @param budget         error and time budget
+	 * @return estimated number of paths
+	 */
+	public PathCountEstimate exactHops(ExactHopsInput exactHopsInput, SamplingBudget budget) {
+		return estimate(Query.EXACT_HOPS, exactHopsInput.getSrc(), exactHopsInput.getDst(), exactHopsInput.getHops(),
+				budget);
+	}
+
+	/**
+	 * Estimates the number of paths of less than {@code latency}.
+	 *
+	 * @param uptoLatencyInput upto latency input object
+	 * @param budget           error and time budget
+	 * @return estimated number of paths
+	 */
+	public PathCountEstimate uptoLatency(UptoLatencyInput uptoLatencyInput, SamplingBudget budget) {
+		return estimate(Query.UPTO_LATENCY, uptoLatencyInput.getSrc(), uptoLatencyInput.getDst(),
+				uptoLatencyInput.getLatency(), budget);
+	}
+
+	/**
+	 * Draws samples until the relative error is reached or the time or the samples
+	 * run out, checking after every batch.
+	 *
+	 * @param query  type of query
+	 * @param src    source vertex
+	 * @param dst    destination vertex
+	 * @param limit  hops or latency of the query
+	 * @param budget error and time budget
+	 * @return estimated number of paths
+	 */
+	private PathCountEstimate estimate(Query query, int src, int dst, int limit, SamplingBudget budget) {
+		if (budget.getTimeMillis() <= 0 && budget.getMaxSamples() <= 0) {
+			throw new IllegalArgumentException("Sampling budget bounds neither the time nor the samples");
+		}
+		double confidence = budget.getConfidence() == 0 ? DEFAULT_CONFIDENCE : budget.getConfidence();
+		if (confidence <= 0 || confidence >= 1) {
+			throw new IllegalArgumentException("Confidence " + confidence + " is not between 0 and 1");
+		}
+		long start = System.nanoTime();
+		PathCountEstimate.PathCountEstimateBuilder result = PathCountEstimate.builder().query(query)
+				.confidence(confidence);
+		int n = graph.getNumOfVertices();
+		boolean latency = query == Query.UPTO_LATENCY;
+		if (src >= n || dst >= n) {
+			return result.elapsedNanos(System.nanoTime() - start).build();
+		}
+		src = graph.toInternal(src);
+		dst = graph.toInternal(dst);
+		int[] bounds = latency ? SearchBounds.latencyBounds(graph.getBackend(), dst)
+				: SearchBounds.hopBounds(graph.getBackend(), dst);
+		if (!canReach(bounds[src], limit, latency)) {
+			return result.elapsedNanos(System.nanoTime() - start).build();
+		}
+
+		Sampler sampler = new Sampler(query, dst, limit, bounds);
+		double z = quantile((1 + confidence) / 2);
+		long deadline = budget.getTimeMillis() > 0 ? start + budget.getTimeMillis() * 1_000_000 : Long.MAX_VALUE;
+		long maxSamples = budget.getMaxSamples() > 0 ? budget.getMaxSamples() : Long.MAX_VALUE;
+		SplittableRandom random = new SplittableRandom(budget.getSeed());
+		long samples = 0;
+		double mean = 0, m2 = 0;
+		while (true) {
+			for (int i = 0; i < BATCH_SIZE && samples < maxSamples; i++) {
+				double x = sampler.walk(src, random);
+				samples++;
+				double delta = x - mean;
+				mean += delta / samples;
+				m2 += delta * (x - mean);
+			}
+			double error = z * Math.sqrt(m2 / Math.max(samples - 1, 1) / samples);
+			boolean precise = budget.getRelativeError() > 0 && samples >= MIN_SAMPLES && mean > 0
+					&& error <= budget.getRelativeError() * mean;
+			if (precise || samples >= maxSamples || System.nanoTime() >= deadline) {
+				return result.estimate(mean).standardError(error / z).lowerBound(Math.max(mean - error, 0))
+						.upperBound(mean + error).samples(samples).elapsedNanos(System.nanoTime() - start).build();
+			}
+		}
+	}
+
+	/**
+	 * Returns if a walk reaching vertex {@code w} at a depth is a path.
+	 *
+	 * @param query type of query
+	 * @param w     vertex
+	 * @param dst   destination vertex
+	 * @param dist  hops or latency of the walk
+	 * @param limit hops or latency of the query
+	 * @return walk is a path as a boolean
+	 */
+	private static boolean counts(Query query, int w, int dst, int dist, int limit) {
+		return w == dst && (query != Query.EXACT_HOPS || dist == limit);
+	}
+
+	/**
+	 * Returns if a walk reaching vertex {@code w} at a depth can still be extended
+	 * to a path.
+	 *
+	 * @param w       vertex
+	 * @param dist    hops or latency of the walk
+	 * @param limit   hops or latency of the query
+	 * @param bounds  lower bounds to the destination
+	 * @param latency bounds are latencies
+	 * @return walk can be extended as a boolean
+	 */
+	private static boolean continues(int w, int dist, int limit, int[] bounds, boolean latency) {
+		return (latency || dist < limit) && canReach(bounds[w], limit - dist, latency);
+	}
+
+	/**
+	 * Returns if a lower bound to the destination is within the remaining hops,
+	 * or below the remaining latency.
+	 *
+	 * @param bound     lower bound
+	 * @param remaining remaining hops or latency
+	 * @param latency   bound is a latency
+	 * @return destination can be reached as a boolean
+	 */
+	private static boolean canReach(int bound, int remaining, boolean latency) {
+		return latency ? bound < remaining : bound <= remaining;
+	}
+
+	/**
+	 * Returns the quantile of the standard normal distribution at a probability,
+	 * by bisection on its distribution function.
+	 *
+	 * @param p probability
+	 * @return quantile
+	 */
+	private static double quantile(double p) {
+		double lo = -10, hi = 10;
+		for (int i = 0; i < 64; i++) {
+			double mid = (lo + hi) / 2;
+			if ((1 + erf(mid / Math.sqrt(2))) / 2 < p) {
+				lo = mid;
+			} else {
+				hi = mid;
+			}
+		}
+		return (lo + hi) / 2;
+	}
+
+	/**
+	 * Returns the error function, with an absolute error below 1.5e-7
+	 * (Abramowitz and Stegun 7.1.26).
+	 *
+	 * @param x argument
+	 * @return error function of {@code x}
+	 */
+	private static double erf(double x) {
+		double t = 1 / (1 + 0.3275911 * Math.abs(x));
+		double y = 1 - t * (0.254829592 + t * (-0.284496736 + t * (1.421413741 + t * (-1.453152027
+				+ t * 1.061405429)))) * Math.exp(-x * x);
+		return x < 0 ? -y : y;
+	}
+
+	/**
+	 * The {@code Sampler} class represents the random walks of one query. The
+	 * expected number of paths after an edge is the number of continuations
+	 * {@code F_r(w)} from its head {@code w} within the remaining depth {@code r},
+	 * counted exactly up to a horizon by a dynamic program over the depth and
+	 * extrapolated beyond it by the growth of the last rows. Within the horizon
+	 * every walk then weighs the exact count.
+	 */
+	private final class Sampler {
+		private static final double MAX_COUNT = 1e300;
+		private final Query query;
+		private final boolean latency;
+		private final int dst;
+		private final int limit;
+		private final int[] bounds;
+		private final double[][] table;
+		private final int horizon;
+		private final double logGrowth;
+		private final double[] hitLogs = new double[maxOutDegree];
+		private final double[] continueLogs = new double[maxOutDegree];
+		private final double[] scores = new double[maxOutDegree];
+
+		/**
+		 * Counts the continuations up to the horizon, which is the limit of the query
+		 * unless the table would outgrow its cells or its counts would overflow.
+		 *
+		 * @param query  type of query
+		 * @param dst    destination vertex
+		 * @param limit  hops or latency of the query
+		 * @param bounds lower bounds to {@code dst} from {@link SearchBounds}
+		 */
+		private Sampler(Query query, int dst, int limit, int[] bounds) {
+			this.query = query;
+			this.latency = query == Query.UPTO_LATENCY;
+			this.dst = dst;
+			this.limit = limit;
+			this.bounds = bounds;
+			int n = offsets.length - 1;
+			int rows = Math.min(limit, Math.max(tableCells / Math.max(n, 1), 2));
+			double[][] f = new double[rows + 1][];
+			f[0] = new double[n];
+			int h = 0;
+			while (h < rows) {
+				int k = h + 1;
+				double[] row = new double[n];
+				double max = 0;
+				for (int v = 0; v < n; v++) {
+					for (int j = offsets[v]; j < offsets[v + 1]; j++) {
+						int c = latency ? weights[j] : 1;
+						if (latency ? c >= k : c > k) {
+							continue;
+						}
+						row[v] += f[k - c][targets[j]] + (counts(query, targets[j], dst, c, k) ? 1 : 0);
+					}
+					max = Math.max(max, row[v]);
+				}
+				if (max > MAX_COUNT) {
+					break;
+				}
+				f[k] = row;
+				h = k;
+			}
+			table = f;
+			horizon = h;
+
+			int m = 2 * Math.max(horizon / 4, 1);
+			double last = horizon >= m ? sum(f[horizon]) : 0, first = horizon >= m ? sum(f[horizon - m]) : 0;
+			if (last > 0 && first > 0) {
+				logGrowth = Math.max(Math.log(last / first) / m, 0);
+			} else {
+				GraphStatistics statistics = graph.getStatistics();
+				double d = statistics.getAverageOutDegree();
+				logGrowth = d <= 1 ? 0 : Math.log(d) / (latency ? Math.max(statistics.getEffectiveWeight(), 1) : 1);
+			}
+		}
+
+		/**
+		 * Draws one sample: a random walk from the source vertex {@code src}, weighted
+		 * by the inverse of its probability, which adds its weight every time it
+		 * reaches {@code dst} and stops when no edge leads to a path anymore. An edge
+		 * is taken with a probability proportional to the paths it ends plus the
+		 * continuations from its head, and never below the smallest normal double
+		 * when the bounds allow it, so that the estimate stays unbiased.
+		 *
+		 * @param src    source vertex
+		 * @param random source of randomness
+		 * @return number of paths found, weighted
+		 */
+		private double walk(int src, SplittableRandom random) {
+			double weight = 1, x = 0;
+			int v = src, dist = 0;
+			while (true) {
+				int from = offsets[v], to = offsets[v + 1];
+				double top = Double.NEGATIVE_INFINITY;
+				for (int j = from; j < to; j++) {
+					int next = dist + (latency ? weights[j] : 1);
+					int w = targets[j];
+					boolean within = latency ? next < limit : next <= limit;
+					hitLogs[j - from] = within && counts(query, w, dst, next, limit) ? 0 : Double.NEGATIVE_INFINITY;
+					continueLogs[j - from] = within && continues(w, next, limit, bounds, latency)
+							? continuations(w, limit - next)
+							: Double.NEGATIVE_INFINITY;
+					top = Math.max(top, Math.max(hitLogs[j - from], continueLogs[j - from]));
+				}
+				if (top == Double.NEGATIVE_INFINITY) {
+					return x;
+				}
+
+				double total = 0;
+				for (int j = from; j < to; j++) {
+					scores[j - from] = score(hitLogs[j - from], top) + score(continueLogs[j - from], top);
+					total += scores[j - from];
+				}
+				double pick = random.nextDouble() * total;
+				int j = -1;
+				for (int k = from; k < to && pick >= 0; k++) {
+					if (scores[k - from] > 0) {
+						j = k;
+						pick -= scores[k - from];
+					}
+				}
+				weight *= total / scores[j - from];
+				int w = targets[j];
+				dist += latency ? weights[j] : 1;
+				if (counts(query, w, dst, dist, limit)) {
+					x += weight;
+				}
+				if (!continues(w, dist, limit, bounds, latency)) {
+					return x;
+				}
+				v = w;
+			}
+		}
+
+		/**
+		 * Returns the logarithm of the number of continuations from vertex {@code w}
+		 * within the remaining hops or latency {@code r}: exact within the horizon,
+		 * extrapolated from the last row of the same parity beyond it, or from the
+		 * bound of {@code w} when its paths are all longer than the horizon.
+		 *
+		 * @param w vertex
+		 * @param r remaining hops or latency
+		 * @return logarithm of the number of continuations
+		 */
+		private double continuations(int w, int r) {
+			if (r <= horizon) {
+				return Math.log(table[r][w]);
+			}
+			int row = query == Query.EXACT_HOPS && horizon > 1 ? horizon - ((r - horizon) & 1) : horizon;
+			return table[row][w] > 0 ? Math.log(table[row][w]) + (r - row) * logGrowth
+					: (r - bounds[w]) * logGrowth;
+		}
+
+		/**
+		 * Returns the score of a logarithmic weight relative to the top one, at least
+		 * the smallest normal double unless the weight is zero.
+		 *
+		 * @param log logarithm of the weight
+		 * @param top logarithm of the top weight
+		 * @return score
+		 */
+		private double score(double log, double top) {
+			return log == Double.NEGATIVE_INFINITY ? 0 : Math.max(Math.exp(log - top), Double.MIN_NORMAL);
+		}
+
+		/**
+		 * Returns the sum of a row of the table.
+		 *
+		 * @param row row
+		 * @return sum
+		 */
+		private double sum(double[] row) {
+			double sum = 0;
+			for (double value : row) {
+				sum += value;
+			}
+			return sum;
+		}
+	}
+}
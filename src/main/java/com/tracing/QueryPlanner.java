@@ -0,0 +1,507 @@
+package com.tracing;
+
+import com.tracing.model.graph.Edge;
+import com.tracing.model.input.ExactHopsInput;
+import com.tracing.model.input.UptoHopsInput;
+import com.tracing.model.input.UptoLatencyInput;
+import com.tracing.model.output.QueryPlan;
+import com.tracing.model.output.QueryPlan.Query;
+import com.tracing.model.output.QueryPlan.Strategy;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * The {@code QueryPlanner} class represents a cost-based planner for counting
+ * the paths from a source vertex {@code src} to a destination vertex
+ * {@code dst} in an edge-weighted graph. For every query it estimates the cost
+ * of each applicable {@link Strategy} from the {@link GraphStatistics} of the
+ * graph, runs the cheapest one and returns a {@link QueryPlan} with the
+ * estimated and the actual cost. The {@link Strategy#BFS_ENUMERATION} is
+ * estimated but only run when forced: it expands every partial path, also
+ * those which cannot reach the destination, and the average degree does not
+ * predict how many those are. All strategies count the same paths, so the
+ * choice only changes the time taken; counts saturate at
+ * {@code Long.MAX_VALUE}. Every strategy runs on the internal ids of the
+ * backend, which only the source and destination vertices are translated to.
+ * A planner is not thread safe.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+public class QueryPlanner {
+	/**
+	 * Cost of one multiply-add of the matrix power, the unit of cost.
+	 */
+	private static final double MATRIX_COST = 1;
+	/**
+	 * Cost of one vertex or edge visit of the layered dynamic program or of the
+	 * computation of the bounds.
+	 */
+	private static final double LAYER_COST = 3;
+	/**
+	 * Cost of one edge visit of an enumeration, which queues a boxed partial path.
+	 */
+	private static final double ENUMERATION_COST = 6;
+	/**
+	 * Largest number of entries of an array.
+	 */
+	private static final long MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+	private final Graph graph;
+	private final GraphBackend backend;
+	private final Strategy strategy;
+	private long work;
+
+	/**
+	 * Initializes a planner choosing the cheapest strategy for every query.
+	 *
+	 * @param graph graph
+	 */
+	public QueryPlanner(Graph graph) {
+		this(graph, null);
+	}
+
+	/**
+	 * Initializes a planner using the given strategy for every query.
+	 *
+	 * @param graph    graph
+	 * @param strategy strategy, or null to choose the cheapest one
+	 */
+	public QueryPlanner(Graph graph, Strategy strategy) {
+		this.graph = graph;
+		this.backend = graph.getBackend();
+		this.strategy = strategy;
+	}
+
+	/**
+	 * Counts the paths of 1 up to the given {@code hops} value.
+	 *
+	 * @param uptoHopsInput upto hops input object
+	 * @return executed plan with the number of paths
+	 */
+	public QueryPlan uptoHops(UptoHopsInput uptoHopsInput) {
+		return execute(Query.UPTO_HOPS, uptoHopsInput.getSrc(), uptoHopsInput.getDst(), uptoHopsInput.getHops());
+	}
+
+	/**
+	 * Counts the paths of an exact {@code hops} value.
+	 *
+	 * @param exactHopsInput exact hops input object
+	 * @return executed plan with the number of paths
+	 */
+	public QueryPlan exactHops(ExactHopsInput exactHopsInput) {
+		return execute(Query.EXACT_HOPS, exactHopsInput.getSrc(), exactHopsInput.getDst(), exactHopsInput.getHops());
+	}
+
+	/**
+	 * Counts the paths of less than the given {@code latency} value.
+	 *
+	 * @param uptoLatencyInput upto latency input object
+	 * @return executed plan with the number of paths
+	 */
+	public QueryPlan uptoLatency(UptoLatencyInput uptoLatencyInput) {
+		return execute(Query.UPTO_LATENCY, uptoLatencyInput.getSrc(), uptoLatencyInput.getDst(),
+				uptoLatencyInput.getLatency());
+	}
+
+	/**
+	 * Estimates the cost of every strategy applicable to a query. The graph is
+	 * modelled as {@code n} vertices and {@code m} edges of out-degree {@code d}
+	 * and a query reaches depth {@code h}, the hops or the latency over the
+	 * effective weight:
+	 * <ul>
+	 * <li>the enumeration visits {@code d + d^2 + ... + d^h} edges,</li>
+	 * <li>the bounded search pays for the bounds and then keeps a
+	 * partial path only while the destination, reached backwards by about
+	 * {@code d^j} vertices in {@code j} hops, is within the remaining depth,</li>
+	 * <li>the layered dynamic program visits the whole graph once per hop or per
+	 * unit of latency,</li>
+	 * <li>the matrix power squares an {@code n x n} matrix once per bit of the
+	 * hops, and cannot run when the matrix does not fit in an array.</li>
+	 * </ul>
+	 * Every visit is weighted by its relative time, measured by
+	 * {@code QueryPlannerBenchmark}, in units of one matrix multiply-add.
+	 *
+	 * @param query type of query
+	 * @param limit hops or latency of the query
+	 * @return estimated cost of every applicable strategy
+	 */
+	public Map<Strategy, Double> estimate(Query query, int limit) {
+		GraphStatistics statistics = graph.getStatistics();
+		double n = Math.max(statistics.getNumOfVertices(), 1);
+		double m = statistics.getNumOfEdges();
+		double d = statistics.getAverageOutDegree();
+		double depth = Math.max(limit, 0);
+		if (query == Query.UPTO_LATENCY) {
+			depth = statistics.getEffectiveWeight() == 0 ? 0
+					: Math.max(limit - 1, 0) / statistics.getEffectiveWeight();
+		}
+
+		Map<Strategy, Double> estimates = new EnumMap<>(Strategy.class);
+		estimates.put(Strategy.BFS_ENUMERATION, ENUMERATION_COST * geometric(d, depth));
+		double pruned = d > 1 ? Math.min(depth, Math.ceil(Math.log(n) / Math.log(d))) : depth;
+		estimates.put(Strategy.BOUNDED_SEARCH, boundsCost(query)
+				+ ENUMERATION_COST * (geometric(d, depth - pruned) + pruned * Math.pow(d, depth + 1) / n));
+		if (query == Query.UPTO_LATENCY) {
+			estimates.put(Strategy.LAYERED_DP,
+					LAYER_COST * ((statistics.getMaxWeight() + 1.0) * n + Math.max(limit, 0) * (n + m)));
+		} else {
+			estimates.put(Strategy.LAYERED_DP, LAYER_COST * depth * (n + m));
+			double s = query == Query.UPTO_HOPS ? n + 1 : n;
+			long exp = query == Query.UPTO_HOPS ? limit + 1L : limit;
+			double squarings = exp > 1 ? 63 - Long.numberOfLeadingZeros(exp) : 0;
+			estimates.put(Strategy.MATRIX_POWER, s * s > MAX_ARRAY_SIZE ? Double.POSITIVE_INFINITY
+					: MATRIX_COST * (s * s + squarings * s * s * s + (exp > 0 ? Long.bitCount(exp) : 0) * s * s));
+		}
+		return estimates;
+	}
+
+	/**
+	 * Returns the cost of computing the {@link SearchBounds} of a query: a
+	 * breadth first search for hops, a search with a binary heap for latency,
+	 * followed by a scan of every edge.
+	 *
+	 * @param query type of query
+	 * @return cost of the bounds
+	 */
+	private double boundsCost(Query query) {
+		double n = Math.max(graph.getStatistics().getNumOfVertices(), 1);
+		double m = graph.getStatistics().getNumOfEdges();
+		double search = query == Query.UPTO_LATENCY ? Math.log(n + 1) / Math.log(2) + 1 : 1;
+		return LAYER_COST * (n + m) * (search + 1);
+	}
+
+	/**
+	 * Plans and runs a query.
+	 *
+	 * @param query type of query
+	 * @param src   source vertex
+	 * @param dst   destination vertex
+	 * @param limit hops or latency of the query
+	 * @return executed plan
+	 */
+	private QueryPlan execute(Query query, int src, int dst, int limit) {
+		Map<Strategy, Double> estimates = estimate(query, limit);
+		Strategy chosen = strategy;
+		if (chosen == null) {
+			for (Map.Entry<Strategy, Double> estimate : estimates.entrySet()) {
+				if (estimate.getKey() != Strategy.BFS_ENUMERATION
+						&& (chosen == null || estimate.getValue() < estimates.get(chosen))) {
+					chosen = estimate.getKey();
+				}
+			}
+		} else if (!estimates.containsKey(chosen)) {
+			throw new IllegalArgumentException("Strategy " + chosen + " does not answer " + query + " queries");
+		}
+
+		work = 0;
+		double setup = 0;
+		long start = System.nanoTime();
+		long result = 0;
+		if (src < graph.getNumOfVertices() && dst < graph.getNumOfVertices()) {
+			src = graph.toInternal(src);
+			dst = graph.toInternal(dst);
+			switch (chosen) {
+			case BFS_ENUMERATION:
+				result = enumerate(query, src, dst, limit, null);
+				break;
+			case BOUNDED_SEARCH:
+				setup = boundsCost(query);
+				int[] bounds = query == Query.UPTO_LATENCY ? SearchBounds.latencyBounds(backend, dst)
+						: SearchBounds.hopBounds(backend, dst);
+				result = enumerate(query, src, dst, limit, bounds);
+				break;
+			case LAYERED_DP:
+				result = query == Query.UPTO_LATENCY ? latencyLayers(src, dst, limit)
+						: hopLayers(query, src, dst, limit);
+				break;
+			default:
+				result = matrixPower(query, src, dst, limit);
+			}
+		}
+		long elapsedNanos = System.nanoTime() - start;
+		double unitCost = chosen == Strategy.MATRIX_POWER ? MATRIX_COST
+				: chosen == Strategy.LAYERED_DP ? LAYER_COST : ENUMERATION_COST;
+		return QueryPlan.builder().query(query).strategy(chosen).estimates(estimates)
+				.actualCost(Math.round(setup + unitCost * work)).elapsedNanos(elapsedNanos)
+				.result(result).build();
+	}
+
+	/**
+	 * Counts the paths by a breadth first enumeration of the partial paths from
+	 * the source vertex {@code src}, optionally discarding a partial path as soon
+	 * as the lower bound from its last vertex to {@code dst} exceeds the
+	 * remaining hops or latency.
+	 *
+	 * @param query  type of query
+	 * @param src    source vertex
+	 * @param dst    destination vertex
+	 * @param limit  hops or latency of the query
+	 * @param bounds lower bounds to {@code dst} from {@link SearchBounds}, or
+	 *               null to enumerate every partial path
+	 * @return number of paths
+	 */
+	private long enumerate(Query query, int src, int dst, int limit, int[] bounds) {
+		long result = 0;
+		boolean latency = query == Query.UPTO_LATENCY;
+		Queue<Integer> vertQ = new ArrayDeque<>();
+		Queue<Integer> distQ = new ArrayDeque<>();
+		if (bounds == null || canReach(bounds[src], limit, latency)) {
+			vertQ.add(src);
+			distQ.add(0);
+		}
+
+		while (!vertQ.isEmpty()) {
+			int v = vertQ.remove();
+			int count = distQ.remove();
+
+			for (Edge e : backend.adj(v)) {
+				work++;
+				int w = e.to();
+				int dist = count + (latency ? e.weight() : 1);
+				if (latency ? dist >= limit : dist > limit) {
+					continue;
+				}
+				if (w == dst && (query != Query.EXACT_HOPS || dist == limit)) {
+					result++;
+				}
+				if ((latency || dist < limit) && (bounds == null || canReach(bounds[w], limit - dist, latency))) {
+					vertQ.add(w);
+					distQ.add(dist);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns if a lower bound to the destination is within the remaining hops,
+	 * or below the remaining latency.
+	 *
+	 * @param bound     lower bound
+	 * @param remaining remaining hops or latency
+	 * @param latency   bound is a latency
+	 * @return destination can be reached as a boolean
+	 */
+	private static boolean canReach(int bound, int remaining, boolean latency) {
+		return latency ? bound < remaining : bound <= remaining;
+	}
+
+	/**
+	 * Counts the paths by the number of paths from the source vertex {@code src}
+	 * to every vertex after each hop, stopping early once no path is left.
+	 *
+	 * @param query type of query
+	 * @param src   source vertex
+	 * @param dst   destination vertex
+	 * @param hops  hops of the query
+	 * @return number of paths
+	 */
+	private long hopLayers(Query query, int src, int dst, int hops) {
+		int n = backend.capacity();
+		long[] counts = new long[n];
+		long[] next = new long[n];
+		counts[src] = 1;
+		long result = 0;
+		for (long k = 1; k <= hops; k++) {
+			boolean active = false;
+			for (int v = 0; v < n; v++) {
+				work++;
+				if (counts[v] == 0) {
+					continue;
+				}
+				for (Edge e : backend.adj(v)) {
+					work++;
+					next[e.to()] = add(next[e.to()], counts[v]);
+					active = true;
+				}
+			}
+			if (query == Query.UPTO_HOPS || k == hops) {
+				result = add(result, next[dst]);
+			}
+			long[] t = counts;
+			counts = next;
+			next = t;
+			Arrays.fill(next, 0);
+			if (!active) {
+				break;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Counts the paths by the number of paths from the source vertex {@code src}
+	 * to every vertex at each latency, keeping only the layers an edge can still
+	 * reach in a ring, and stopping early once no path is left.
+	 *
+	 * @param src     source vertex
+	 * @param dst     destination vertex
+	 * @param latency latency of the query
+	 * @return number of paths
+	 */
+	private long latencyLayers(int src, int dst, int latency) {
+		int n = backend.capacity();
+		int span = graph.getStatistics().getMaxWeight() + 1;
+		long[][] ring = new long[span][n];
+		work += (long) span * n;
+		ring[0][src] = 1;
+		long result = 0;
+		int last = 0;
+		for (int l = 0; l < latency && l <= last; l++) {
+			long[] counts = ring[l % span];
+			for (int v = 0; v < n; v++) {
+				work++;
+				if (counts[v] == 0) {
+					continue;
+				}
+				for (Edge e : backend.adj(v)) {
+					work++;
+					int w = e.to();
+					int dist = l + e.weight();
+					if (dist < latency) {
+						long[] layer = ring[dist % span];
+						layer[w] = add(layer[w], counts[v]);
+						last = Math.max(last, dist);
+						if (w == dst) {
+							result = add(result, counts[v]);
+						}
+					}
+				}
+			}
+			Arrays.fill(counts, 0);
+		}
+		return result;
+	}
+
+	/**
+	 * Counts the paths from a power of the adjacency matrix computed by repeated
+	 * squaring, multiplying only the row of the source vertex {@code src}. For
+	 * paths up to {@code h} hops an absorbing vertex is added after
+	 * {@code dst}, so that the paths of {@code h + 1} hops into it are the paths
+	 * of 0 to {@code h} hops to {@code dst}.
+	 *
+	 * @param query type of query
+	 * @param src   source vertex
+	 * @param dst   destination vertex
+	 * @param hops  hops of the query
+	 * @return number of paths
+	 */
+	private long matrixPower(Query query, int src, int dst, int hops) {
+		if (hops <= 0) {
+			return 0;
+		}
+		int n = backend.capacity();
+		boolean upto = query == Query.UPTO_HOPS;
+		int s = upto ? n + 1 : n;
+		if ((long) s * s > MAX_ARRAY_SIZE) {
+			throw new IllegalArgumentException("Matrix power needs a " + s + " x " + s + " matrix");
+		}
+		long[] base = new long[s * s];
+		work += (long) s * s;
+		for (int v = 0; v < n; v++) {
+			for (Edge e : backend.adj(v)) {
+				base[v * s + e.to()]++;
+			}
+		}
+		long exp = hops;
+		if (upto) {
+			base[dst * s + n] = 1;
+			base[n * s + n] = 1;
+			exp++;
+		}
+
+		long[] row = new long[s];
+		row[src] = 1;
+		while (exp > 0) {
+			if ((exp & 1) == 1) {
+				row = multiply(row, 1, base, s);
+			}
+			exp >>= 1;
+			if (exp > 0) {
+				base = multiply(base, s, base, s);
+			}
+		}
+		long result = upto ? row[n] : row[dst];
+		if (upto && src == dst && result != Long.MAX_VALUE) {
+			result--;
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the product of a matrix of {@code rows} rows by a square matrix,
+	 * skipping the zero entries of the left matrix.
+	 *
+	 * @param a    row-major left matrix
+	 * @param rows number of rows of {@code a}
+	 * @param b    row-major square matrix
+	 * @param s    number of rows and columns of {@code b}
+	 * @return row-major product
+	 */
+	private long[] multiply(long[] a, int rows, long[] b, int s) {
+		long[] c = new long[rows * s];
+		for (int i = 0; i < rows; i++) {
+			int row = i * s;
+			for (int k = 0; k < s; k++) {
+				long aik = a[row + k];
+				if (aik == 0) {
+					continue;
+				}
+				work += s;
+				int col = k * s;
+				for (int j = 0; j < s; j++) {
+					c[row + j] = add(c[row + j], multiply(aik, b[col + j]));
+				}
+			}
+		}
+		return c;
+	}
+
+	/**
+	 * Returns the sum of two counts, saturating at {@code Long.MAX_VALUE}.
+	 *
+	 * @param a count
+	 * @param b count
+	 * @return sum
+	 */
+	private static long add(long a, long b) {
+		long sum = a + b;
+		return sum < 0 ? Long.MAX_VALUE : sum;
+	}
+
+	/**
+	 * Returns the product of two counts, saturating at {@code Long.MAX_VALUE}.
+	 *
+	 * @param a count
+	 * @param b count
+	 * @return product
+	 */
+	private static long multiply(long a, long b) {
+		long product = a * b;
+		return Math.multiplyHigh(a, b) != 0 || product < 0 ? Long.MAX_VALUE : product;
+	}
+
+	/**
+	 * Returns {@code d + d^2 + ... + d^h} for a possibly fractional depth
+	 * {@code h}.
+	 *
+	 * @param d ratio
+	 * @param h depth
+	 * @return sum of the powers
+	 */
+	private static double geometric(double d, double h) {
+		if (h <= 0) {
+			return 0;
+		}
+		if (Math.abs(d - 1) < 1e-9) {
+			return h;
+		}
+		return d * (Math.pow(d, h) - 1) / (d - 1);
+	}
+}
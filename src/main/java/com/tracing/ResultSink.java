@@ -0,0 +1,88 @@
+package com.tracing;
+
+import com.tracing.model.output.QueryResult;
+
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * The {@code ResultSink} interface represents a destination of query results.
+ * The sinks buffer what they write and only flush it when they are closed, so
+ * millions of results cost a few large writes; an {@link AsyncSink} moves the
+ * writing off the query threads.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+public interface ResultSink extends Closeable {
+
+	/**
+	 * The format of the results.
+	 */
+	enum Format {
+		/**
+		 * One result per line, {@code NO SUCH TRACE} when it is not found.
+		 */
+		TEXT,
+		/**
+		 * One JSON object per line with the query id, type, result and timing.
+		 */
+		JSON_LINES,
+		/**
+		 * Varint encoded records with the query id, type, result and timing.
+		 */
+		BINARY
+	}
+
+	/**
+	 * Returns a sink writing the results in the given format to a stream, which is
+	 * closed with the sink.
+	 *
+	 * @param format format of the results
+	 * @param out    stream
+	 * @return sink
+	 */
+	static ResultSink create(Format format, OutputStream out) {
+		switch (format) {
+		case JSON_LINES:
+			return new JsonLinesSink(out);
+		case BINARY:
+			return new BinarySink(out);
+		default:
+			return new TextSink(out);
+		}
+	}
+
+	/**
+	 * Returns the standard output as a stream which is flushed but left open when
+	 * it is closed, so closing a sink writing to the console does not close
+	 * {@code System.out}.
+	 *
+	 * @return stream
+	 */
+	static OutputStream console() {
+		return new FilterOutputStream(System.out) {
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				out.write(b, off, len);
+			}
+
+			@Override
+			public void close() throws IOException {
+				flush();
+			}
+		};
+	}
+
+	/**
+	 * Writes the result of a query.
+	 *
+	 * @param result result of a query
+	 * @throws IOException if the result cannot be written
+	 */
+	void write(QueryResult result) throws IOException;
+}
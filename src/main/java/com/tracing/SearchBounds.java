@@ -0,0 +1,89 @@
+package com.tracing;
+
+import com.tracing.model.graph.Edge;
+
+import java.util.Arrays;
+
+/**
+ * The {@code SearchBounds} class represents lower bounds used to prune the
+ * searches from a vertex to a destination vertex {@code dst} in an
+ * edge-weighted graph. A bound of a vertex {@code v} is the least latency or
+ * number of hops of a path of at least one hop from {@code v} to {@code dst},
+ * or {@code Integer.MAX_VALUE} if there is no such path, so a finite bound is
+ * equivalent to {@link Graph#hasPath(int, int)}. The bounds are computed on
+ * the backend of a graph and indexed by internal id, as read by the searches
+ * running on the backend.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+final class SearchBounds {
+
+	private SearchBounds() {
+	}
+
+	/**
+	 * Computes the least latency of a path of at least one hop from every vertex
+	 * to the destination vertex {@code dst} from the shortest paths to
+	 * {@code dst} in the reverse graph.
+	 *
+	 * @param backend backend
+	 * @param dst     internal id of the destination vertex
+	 * @return latency bound of every internal id
+	 */
+	static int[] latencyBounds(GraphBackend backend, int dst) {
+		ShortestPath sp = new ShortestPath(backend, dst, true);
+		int[] bounds = new int[backend.capacity()];
+		Arrays.fill(bounds, Integer.MAX_VALUE);
+		for (int v = 0; v < bounds.length; v++) {
+			for (Edge e : backend.adj(v)) {
+				int d = sp.distTo(e.to());
+				if (d != Integer.MAX_VALUE && (long) d + e.weight() < bounds[v]) {
+					bounds[v] = d + e.weight();
+				}
+			}
+		}
+		return bounds;
+	}
+
+	/**
+	 * Computes the least number of hops of a path of at least one hop from every
+	 * vertex to the destination vertex {@code dst} by a breadth first search from
+	 * {@code dst} in the reverse graph.
+	 *
+	 * @param backend backend
+	 * @param dst     internal id of the destination vertex
+	 * @return hop bound of every internal id
+	 */
+	static int[] hopBounds(GraphBackend backend, int dst) {
+		int[] distTo = new int[backend.capacity()];
+		Arrays.fill(distTo, Integer.MAX_VALUE);
+		int[] vertQ = new int[distTo.length];
+		int head = 0, tail = 0;
+		distTo[dst] = 0;
+		vertQ[tail++] = dst;
+		while (head < tail) {
+			int v = vertQ[head++];
+			for (Edge e : backend.adjR(v)) {
+				int w = e.to();
+				if (distTo[w] == Integer.MAX_VALUE) {
+					distTo[w] = distTo[v] + 1;
+					vertQ[tail++] = w;
+				}
+			}
+		}
+		int[] bounds = new int[distTo.length];
+		Arrays.fill(bounds, Integer.MAX_VALUE);
+		for (int v = 0; v < bounds.length; v++) {
+			for (Edge e : backend.adj(v)) {
+				int d = distTo[e.to()];
+				if (d != Integer.MAX_VALUE && d + 1 < bounds[v]) {
+					bounds[v] = d + 1;
+				}
+			}
+		}
+		return bounds;
+	}
+}
@@ -17,23 +17,71 @@ import java.util.Stack;
  */
 
 public class ShortestPath {
+	private final Graph graph;
 	private Edge[] edgeTo;
 	private int[] distTo;
 	private PriorityQueue<Node> pq;
 
 	/**
 	 * Calculate shortest path from the source vertex {@code s} to every other
-	 * vertex in the graph {@code G}.
+	 * vertex in the graph {@code G}. The distance to the source vertex is 0; the
+	 * shortest cycle through it is found by {@link MinimumCycles}. The search runs
+	 * on the internal ids of the backend, and the vertices are only translated by
+	 * the accessors.
 	 *
 	 * @param graph graph
 	 * @param src   source vertex
 	 */
 	public ShortestPath(Graph graph, int src) {
-		edgeTo = new Edge[graph.getNumOfVertices()];
-		distTo = new int[graph.getNumOfVertices()];
-		pq = new PriorityQueue<Node>(graph.getNumOfVertices());
+		this.graph = graph;
+		search(graph.getBackend(), graph.toInternal(src), false, null);
+	}
+
+	/**
+	 * Calculate shortest path from the internal id {@code src} to every other
+	 * internal id of the backend, or of its reverse graph. The accessors take and
+	 * return internal ids.
+	 *
+	 * @param backend backend
+	 * @param src     internal id of the source vertex
+	 * @param reverse search the reverse graph
+	 */
+	ShortestPath(GraphBackend backend, int src, boolean reverse) {
+		this(backend, src, reverse, null);
+	}
+
+	/**
+	 * Calculate shortest path from the internal id {@code src} to every other
+	 * internal id of the backend, or of its reverse graph, without passing
+	 * through the {@code blocked} ids. In the reverse graph {@link #distTo(int)}
+	 * is the length of the shortest path from a vertex to the source vertex and
+	 * {@link #edgeTo(int)} is the reversed first edge of that path. The accessors
+	 * take and return internal ids.
+	 *
+	 * @param backend backend
+	 * @param src     internal id of the source vertex
+	 * @param reverse search the reverse graph
+	 * @param blocked internal ids which cannot be passed through, or null
+	 */
+	ShortestPath(GraphBackend backend, int src, boolean reverse, boolean[] blocked) {
+		this.graph = null;
+		search(backend, src, reverse, blocked);
+	}
 
-		for (int v = 0; v < graph.getNumOfVertices(); v++) {
+	/**
+	 * Runs the Dijkstra search on the internal ids of the backend.
+	 *
+	 * @param backend backend
+	 * @param src     internal id of the source vertex
+	 * @param reverse search the reverse graph
+	 * @param blocked internal ids which cannot be passed through, or null
+	 */
+	private void search(GraphBackend backend, int src, boolean reverse, boolean[] blocked) {
+		edgeTo = new Edge[backend.capacity()];
+		distTo = new int[backend.capacity()];
+		pq = new PriorityQueue<Node>(Math.max(backend.capacity(), 1));
+
+		for (int v = 0; v < distTo.length; v++) {
 			distTo[v] = Integer.MAX_VALUE;
 		}
 
@@ -41,11 +89,10 @@ public class ShortestPath {
 		pq.add(new Node(src, 0));
 		while (!pq.isEmpty()) {
 			Node v = pq.poll();
-			for (Edge e : graph.adj(v.getVertex())) {
-				relax(e);
-			}
-			if (distTo[src] == 0) {
-				distTo[src] = Integer.MAX_VALUE;
+			for (Edge e : reverse ? backend.adjR(v.getVertex()) : backend.adj(v.getVertex())) {
+				if (blocked == null || !blocked[e.to()]) {
+					relax(e);
+				}
 			}
 		}
 	}
@@ -59,7 +106,22 @@ public class ShortestPath {
 	 *         {@code v}
 	 */
 	public int distTo(int dst) {
-		return distTo[dst];
+		return distTo[graph == null ? dst : graph.toInternal(dst)];
+	}
+
+	/**
+	 * Returns the last edge of the shortest path from the source vertex {@code s}
+	 * to vertex {@code v}.
+	 *
+	 * @param v vertex
+	 * @return last edge of the shortest path, or null if there is none
+	 */
+	Edge edgeTo(int v) {
+		if (graph == null) {
+			return edgeTo[v];
+		}
+		Edge e = edgeTo[graph.toInternal(v)];
+		return e == null ? null : graph.toExternal(e);
 	}
 
 	/**
@@ -71,8 +133,8 @@ public class ShortestPath {
 	 */
 	public Iterable<Edge> pathTo(int dst) {
 		Stack<Edge> path = new Stack<Edge>();
-		for (Edge e = edgeTo[dst]; e != null; e = edgeTo[e.from()]) {
-			path.push(e);
+		for (Edge e = edgeTo[graph == null ? dst : graph.toInternal(dst)]; e != null; e = edgeTo[e.from()]) {
+			path.push(graph == null ? e : graph.toExternal(e));
 		}
 		return path;
 	}
@@ -0,0 +1,190 @@
+package com.tracing;
+
+import com.tracing.model.graph.Edge;
+import com.tracing.model.output.EdgeChange;
+import com.tracing.model.output.LatencyRegression;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The {@code SnapshotDiff} class represents the difference between two
+ * snapshots of an edge-weighted graph over the same vertices: the edges whose
+ * latency changed and the shortest traces between distinct vertices which got
+ * slower, ranked by the increase of their latency.
+ * <p>
+ * Only an edge which got slower or was removed can make a shortest trace
+ * slower, and only for the sources with a shortest path through it before the
+ * change: the sources {@code s} with {@code d(s, u) + weight = d(s, w)} for the
+ * changed edge from {@code u} to {@code w}. Both distances of every source are
+ * found by a shortest path search from {@code u} and from {@code w} in the
+ * reverse graph of the first snapshot, so the shortest path trees are only
+ * computed again for the impacted sources, in parallel. This pays off for a
+ * few slower edges; in a sparse graph every edge is on the shortest paths of
+ * many sources, so a few dozen slower edges impact most sources, and when the
+ * slower edges outnumber the vertices every source is searched again without
+ * the reverse searches. The searches run on the internal ids of the backends,
+ * and only the edges compared and the distances read are translated.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+public final class SnapshotDiff {
+	private static final Comparator<LatencyRegression> BY_DELTA = Comparator
+			.comparingLong(LatencyRegression::getDelta).reversed().thenComparingInt(LatencyRegression::getSrc)
+			.thenComparingInt(LatencyRegression::getDst);
+	private final List<EdgeChange> changedEdges = new ArrayList<>();
+	private final int[] affectedSources;
+	private final List<LatencyRegression> regressions;
+
+	/**
+	 * Computes the difference from the graph {@code before} to the graph
+	 * {@code after}.
+	 *
+	 * @param before first snapshot
+	 * @param after  second snapshot
+	 */
+	public SnapshotDiff(Graph before, Graph after) {
+		int n = Math.max(before.getNumOfVertices(), after.getNumOfVertices());
+		for (int v = 0; v < n; v++) {
+			long[] was = fastestEdges(before, v);
+			long[] is = fastestEdges(after, v);
+			int i = 0, j = 0;
+			while (i < was.length || j < is.length) {
+				int w = Math.min(i < was.length ? (int) (was[i] >>> 32) : n,
+						j < is.length ? (int) (is[j] >>> 32) : n);
+				int weightBefore = i < was.length && was[i] >>> 32 == w ? (int) was[i++] : EdgeChange.ABSENT;
+				int weightAfter = j < is.length && is[j] >>> 32 == w ? (int) is[j++] : EdgeChange.ABSENT;
+				if (weightBefore != weightAfter) {
+					changedEdges.add(
+							EdgeChange.builder().from(v).to(w).before(weightBefore).after(weightAfter).build());
+				}
+			}
+		}
+
+		affectedSources = impactedSources(before);
+		regressions = Arrays.stream(affectedSources).parallel()
+				.mapToObj(src -> regressionsFrom(before, after, src)).flatMap(List::stream).sorted(BY_DELTA)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Returns the fastest edge from vertex {@code v} to every head, ordered by
+	 * original head id, each as the head in the upper and the weight in the lower
+	 * half of a long.
+	 *
+	 * @param graph graph
+	 * @param v     vertex
+	 * @return fastest edges, none if the vertex is not in the graph
+	 */
+	private static long[] fastestEdges(Graph graph, int v) {
+		if (v >= graph.getNumOfVertices()) {
+			return new long[0];
+		}
+		List<Long> edges = new ArrayList<>();
+		for (Edge e : graph.getBackend().adj(graph.toInternal(v))) {
+			edges.add((long) graph.toExternal(e.to()) << 32 | e.weight());
+		}
+		Collections.sort(edges);
+		return IntStream.range(0, edges.size())
+				.filter(k -> k == 0 || edges.get(k) >>> 32 != edges.get(k - 1) >>> 32)
+				.mapToLong(edges::get).toArray();
+	}
+
+	/**
+	 * Returns the sources with a shortest path through an edge which got slower
+	 * or was removed, in increasing order.
+	 *
+	 * @param before first snapshot
+	 * @return impacted sources
+	 */
+	private int[] impactedSources(Graph before) {
+		int n = before.getNumOfVertices();
+		GraphBackend backend = before.getBackend();
+		List<EdgeChange> slower = changedEdges.stream().filter(EdgeChange::isRegression)
+				.filter(c -> c.getBefore() != EdgeChange.ABSENT).collect(Collectors.toList());
+		if (slower.size() >= n) {
+			return IntStream.range(0, n).toArray();
+		}
+		boolean[] impacted = new boolean[n];
+		int numOfImpacted = 0;
+		ShortestPath toTail = null;
+		for (int k = 0; k < slower.size() && numOfImpacted < n; k++) {
+			EdgeChange change = slower.get(k);
+			if (k == 0 || slower.get(k - 1).getFrom() != change.getFrom()) {
+				toTail = new ShortestPath(backend, before.toInternal(change.getFrom()), true);
+			}
+			ShortestPath toHead = new ShortestPath(backend, before.toInternal(change.getTo()), true);
+			for (int s = 0; s < n; s++) {
+				int i = before.toInternal(s);
+				long viaEdge = (long) toTail.distTo(i) + change.getBefore();
+				if (!impacted[s] && toTail.distTo(i) != Integer.MAX_VALUE && viaEdge == toHead.distTo(i)) {
+					impacted[s] = true;
+					numOfImpacted++;
+				}
+			}
+		}
+		return IntStream.range(0, n).filter(s -> impacted[s]).toArray();
+	}
+
+	/**
+	 * Returns the shortest traces from the source vertex {@code src} which got
+	 * slower.
+	 *
+	 * @param before first snapshot
+	 * @param after  second snapshot
+	 * @param src    source vertex
+	 * @return regressions from the source vertex
+	 */
+	private static List<LatencyRegression> regressionsFrom(Graph before, Graph after, int src) {
+		ShortestPath was = new ShortestPath(before, src);
+		ShortestPath is = src < after.getNumOfVertices() ? new ShortestPath(after, src) : null;
+		List<LatencyRegression> found = new ArrayList<>();
+		for (int dst = 0; dst < before.getNumOfVertices(); dst++) {
+			long latencyBefore = was.distTo(dst);
+			long latencyAfter = is != null && dst < after.getNumOfVertices() ? is.distTo(dst) : Integer.MAX_VALUE;
+			if (dst != src && latencyBefore != Integer.MAX_VALUE && latencyAfter > latencyBefore) {
+				found.add(LatencyRegression.builder().src(src).dst(dst).before(latencyBefore)
+						.after(latencyAfter == Integer.MAX_VALUE ? 0 : latencyAfter).build());
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Returns the edges whose latency changed, ordered by tail then head.
+	 *
+	 * @return changed edges
+	 */
+	public List<EdgeChange> changedEdges() {
+		return Collections.unmodifiableList(changedEdges);
+	}
+
+	/**
+	 * Returns the sources whose shortest path trees were computed again, the
+	 * sources with a shortest path through an edge which got slower or was
+	 * removed.
+	 *
+	 * @return impacted sources in increasing order
+	 */
+	public int[] affectedSources() {
+		return affectedSources.clone();
+	}
+
+	/**
+	 * Returns the shortest traces between distinct vertices which got slower,
+	 * lost traces first, then in decreasing order of the increase of latency.
+	 *
+	 * @return regressions
+	 */
+	public List<LatencyRegression> regressions() {
+		return Collections.unmodifiableList(regressions);
+	}
+}
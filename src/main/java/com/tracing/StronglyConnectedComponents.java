@@ -0,0 +1,160 @@
+package com.tracing;
+
+import com.tracing.model.graph.Edge;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+
+/**
+ * The {@code StronglyConnectedComponents} class represents the strongly
+ * connected components of an edge-weighted graph, computed with the Kosaraju
+ * algorithm: a depth first search of the graph orders the vertices by
+ * decreasing finishing time, and a breadth first search of the reverse graph in
+ * that order collects one component per tree. Components are numbered in
+ * topological order of the condensed graph, so every edge between two
+ * components goes from a lower to a higher component id. The searches run on
+ * the internal ids of the backend, and the vertices are only translated by
+ * the accessors.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+public class StronglyConnectedComponents {
+	private final Graph graph;
+	private final int[] id;
+	private final int[] size;
+	private final int count;
+
+	/**
+	 * Computes the strongly connected components of the graph {@code G}.
+	 *
+	 * @param graph graph
+	 */
+	public StronglyConnectedComponents(Graph graph) {
+		this(graph, graph.getBackend());
+	}
+
+	/**
+	 * Computes the strongly connected components of the internal ids of the
+	 * backend. The accessors take internal ids.
+	 *
+	 * @param backend backend
+	 */
+	StronglyConnectedComponents(GraphBackend backend) {
+		this(null, backend);
+	}
+
+	/**
+	 * Computes the strongly connected components of the internal ids of the
+	 * backend.
+	 *
+	 * @param graph   graph translating the vertices of the accessors, or null
+	 *                for internal ids
+	 * @param backend backend
+	 */
+	private StronglyConnectedComponents(Graph graph, GraphBackend backend) {
+		this.graph = graph;
+		int n = backend.capacity();
+		int[] order = new int[n];
+		int numOrdered = 0;
+		boolean[] marked = new boolean[n];
+		Deque<Integer> vertStack = new ArrayDeque<>();
+		Deque<Iterator<Edge>> edgeStack = new ArrayDeque<>();
+		for (int s = 0; s < n; s++) {
+			if (marked[s]) {
+				continue;
+			}
+			marked[s] = true;
+			vertStack.push(s);
+			edgeStack.push(backend.adj(s).iterator());
+			while (!vertStack.isEmpty()) {
+				Iterator<Edge> edges = edgeStack.peek();
+				if (edges.hasNext()) {
+					int w = edges.next().to();
+					if (!marked[w]) {
+						marked[w] = true;
+						vertStack.push(w);
+						edgeStack.push(backend.adj(w).iterator());
+					}
+				} else {
+					order[numOrdered++] = vertStack.pop();
+					edgeStack.pop();
+				}
+			}
+		}
+
+		id = new int[n];
+		int[] sizes = new int[n];
+		int c = 0;
+		marked = new boolean[n];
+		int[] vertQ = new int[n];
+		for (int i = n - 1; i >= 0; i--) {
+			int s = order[i];
+			if (marked[s]) {
+				continue;
+			}
+			int head = 0, tail = 0;
+			marked[s] = true;
+			vertQ[tail++] = s;
+			while (head < tail) {
+				int v = vertQ[head++];
+				id[v] = c;
+				sizes[c]++;
+				for (Edge e : backend.adjR(v)) {
+					int w = e.to();
+					if (!marked[w]) {
+						marked[w] = true;
+						vertQ[tail++] = w;
+					}
+				}
+			}
+			c++;
+		}
+		count = c;
+		size = Arrays.copyOf(sizes, c);
+	}
+
+	/**
+	 * Returns the number of strongly connected components.
+	 *
+	 * @return number of strongly connected components
+	 */
+	public int count() {
+		return count;
+	}
+
+	/**
+	 * Returns the component id of vertex {@code v}.
+	 *
+	 * @param v vertex
+	 * @return component id of vertex {@code v}, between 0 and {@code count() - 1}
+	 */
+	public int id(int v) {
+		return id[graph == null ? v : graph.toInternal(v)];
+	}
+
+	/**
+	 * Returns the number of vertices in component {@code c}.
+	 *
+	 * @param c component id
+	 * @return number of vertices in component {@code c}
+	 */
+	public int size(int c) {
+		return size[c];
+	}
+
+	/**
+	 * Returns if vertices {@code v} and {@code w} are strongly connected.
+	 *
+	 * @param v vertex
+	 * @param w vertex
+	 * @return vertices are in the same component as a boolean
+	 */
+	public boolean stronglyConnected(int v, int w) {
+		return id(v) == id(w);
+	}
+}
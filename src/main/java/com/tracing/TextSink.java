@@ -0,0 +1,44 @@
+package com.tracing;
+
+import com.tracing.model.output.QueryResult;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The {@code TextSink} class represents a sink writing one result per line,
+ * {@code NO SUCH TRACE} for a result which is not found, through a buffer.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+public class TextSink implements ResultSink {
+	static final int BUFFER_SIZE = 1 << 16;
+	private final Writer writer;
+
+	/**
+	 * Initializes a sink writing to a stream.
+	 *
+	 * @param out stream
+	 */
+	public TextSink(OutputStream out) {
+		this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+	}
+
+	@Override
+	public void write(QueryResult result) throws IOException {
+		writer.write(result.isFound() ? Long.toString(result.getResult()) : "NO SUCH TRACE");
+		writer.write('\n');
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+}
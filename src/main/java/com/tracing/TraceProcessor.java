@@ -1,11 +1,16 @@
 package com.tracing;
 
-import com.tracing.model.graph.Edge;
+import com.tracing.model.graph.Trace;
 import com.tracing.model.input.*;
+import com.tracing.model.output.BulkLatencyResult;
+import com.tracing.model.output.PathCountEstimate;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Queue;
+import java.util.OptionalLong;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * The {@code TraceProcessor} class represents a utility class for finding
@@ -19,6 +24,7 @@ import java.util.Queue;
  */
 
 public class TraceProcessor {
+	private static final int BULK_CHUNK_SIZE = 4096;
 
 	/**
 	 * Find the average latency from the path of given list of vertices in the graph
@@ -26,187 +32,400 @@ public class TraceProcessor {
 	 *
 	 * @param graph               graph
 	 * @param averageLatencyInput average latency input object
-	 * @return average latency
+	 * @return average latency, 0 if there is no such trace
 	 */
 	public long findAverageLatency(Graph graph, AverageLatencyInput averageLatencyInput) {
+		return findAverageLatencyIfExists(graph, averageLatencyInput).orElse(0);
+	}
+
+	/**
+	 * Find the average latency from the path of given list of vertices in the graph
+	 * {@code G}, telling a trace of latency 0 apart from a trace which does not
+	 * exist.
+	 *
+	 * @param graph               graph
+	 * @param averageLatencyInput average latency input object
+	 * @return average latency, empty if the trace has less than two vertices, a
+	 *         vertex outside the graph or a missing edge
+	 */
+	public OptionalLong findAverageLatencyIfExists(Graph graph, AverageLatencyInput averageLatencyInput) {
 		long result = 0;
-		int src, dst;
+		int src, dst, weight;
 		List<Integer> vertices = averageLatencyInput.getVertices();
+		if (vertices.size() < 2) {
+			return OptionalLong.empty();
+		}
 
 		for (int j = 0; j < vertices.size() - 1; j++) {
 			src = vertices.get(j);
 			dst = vertices.get(j + 1);
 			if (src >= graph.getNumOfVertices() || dst >= graph.getNumOfVertices()) {
-				return 0;
+				return OptionalLong.empty();
 			}
 
-			result += graph.getWeight(src, dst);
-
-			if (graph.getWeight(src, dst) == 0) {
-				return 0;
+			weight = graph.getWeight(src, dst);
+			if (weight == 0 && !graph.hasEdge(src, dst)) {
+				return OptionalLong.empty();
 			}
-			if (j == vertices.size() - 2) {
-				return result;
+			result += weight;
+		}
+		return OptionalLong.of(result);
+	}
+
+	/**
+	 * Find the average latency of many traces in the graph {@code G}. The traces
+	 * are evaluated in parallel chunks, and a trace with less than two vertices, a
+	 * vertex outside the graph or a missing edge is reported as invalid.
+	 *
+	 * @param graph                   graph
+	 * @param bulkAverageLatencyInput bulk average latency input object
+	 * @return average latency of every trace and indices of the invalid traces
+	 * @throws IllegalArgumentException if the offsets decrease or lie outside the
+	 *                                  vertices
+	 */
+	public BulkLatencyResult findAverageLatencies(Graph graph, BulkAverageLatencyInput bulkAverageLatencyInput) {
+		int[] vertices = bulkAverageLatencyInput.getVertices();
+		int[] offsets = bulkAverageLatencyInput.getOffsets();
+		int numOfTraces = Math.max(offsets.length - 1, 0);
+		for (int i = 0; i < offsets.length; i++) {
+			if (offsets[i] < (i == 0 ? 0 : offsets[i - 1]) || offsets[i] > vertices.length) {
+				throw new IllegalArgumentException("Invalid offset " + offsets[i] + " of trace " + i);
 			}
 		}
-		return result;
+		long[] latencies = new long[numOfTraces];
+		boolean[] invalid = new boolean[numOfTraces];
+		int numOfChunks = (numOfTraces + BULK_CHUNK_SIZE - 1) / BULK_CHUNK_SIZE;
+
+		IntStream.range(0, numOfChunks).parallel().forEach(chunk -> {
+			int n = graph.getNumOfVertices();
+			int end = Math.min((chunk + 1) * BULK_CHUNK_SIZE, numOfTraces);
+			for (int i = chunk * BULK_CHUNK_SIZE; i < end; i++) {
+				int from = offsets[i], to = offsets[i + 1];
+				if (to - from < 2) {
+					invalid[i] = true;
+					continue;
+				}
+				long result = 0;
+				for (int j = from; j < to - 1; j++) {
+					int src = vertices[j], dst = vertices[j + 1];
+					boolean inside = src >= 0 && src < n && dst >= 0 && dst < n;
+					int weight = inside ? graph.getWeight(src, dst) : 0;
+					if (weight == 0 && !(inside && graph.hasEdge(src, dst))) {
+						invalid[i] = true;
+						result = 0;
+						break;
+					}
+					result += weight;
+				}
+				latencies[i] = result;
+			}
+		});
+
+		int[] invalidTraces = IntStream.range(0, numOfTraces).filter(i -> invalid[i]).toArray();
+		return BulkLatencyResult.builder().latencies(latencies).invalidTraces(invalidTraces).build();
 	}
 
 	/**
 	 * Find the number of paths from the source vertex {@code src} to the
 	 * destination vertex {@code dst} in the graph {@code G} for all values upto the
-	 * given {@code hops} value.
+	 * given {@code hops} value. The algorithm is chosen by a {@link QueryPlanner}
+	 * from its estimated cost.
 	 *
 	 * @param graph         graph
 	 * @param uptoHopsInput upto hops input object
 	 * @return number of paths
 	 */
 	public long findUptoHops(Graph graph, UptoHopsInput uptoHopsInput) {
-		long result = 0;
-		int src = uptoHopsInput.getSrc();
-		int dst = uptoHopsInput.getDst();
-		int hops = uptoHopsInput.getHops();
-
-		if (src >= graph.getNumOfVertices() || dst >= graph.getNumOfVertices()) {
-			return 0;
-		}
+		return new QueryPlanner(graph).uptoHops(uptoHopsInput).getResult();
+	}
 
-		Queue<Integer> vertQ = new LinkedList<Integer>();
-		Queue<Integer> distQ = new LinkedList<Integer>();
-		vertQ.add(src);
-		distQ.add(0);
-
-		while (!vertQ.isEmpty()) {
-			int v = vertQ.remove();
-			int count = distQ.remove();
-
-			if (graph.hasPath(v, dst)) {
-				for (Edge e : graph.adj(v)) {
-					int w = e.to();
-					if (count + 1 <= hops) {
-						vertQ.add(w);
-						distQ.add(count + 1);
-						if (w == dst) {
-							result++;
-						}
-					}
-				}
-			}
-		}
-		return result;
+	/**
+	 * Estimate the number of paths from the source vertex {@code src} to the
+	 * destination vertex {@code dst} in the graph {@code G} for all values upto the
+	 * given number of hops, within an error and time budget.
+	 *
+	 * @param graph         graph
+	 * @param uptoHopsInput upto hops input object
+	 * @param budget        error and time budget
+	 * @return estimated number of paths with its confidence interval
+	 */
+	public PathCountEstimate estimateUptoHops(Graph graph, UptoHopsInput uptoHopsInput, SamplingBudget budget) {
+		return new PathCountEstimator(graph).uptoHops(uptoHopsInput, budget);
 	}
 
 	/**
 	 * Find the number of paths from the source vertex {@code src} to the
 	 * destination vertex {@code dst} in the graph {@code G} for an exact
-	 * {@code hops} value.
+	 * {@code hops} value. The algorithm is chosen by a {@link QueryPlanner} from
+	 * its estimated cost.
 	 *
 	 * @param graph          graph
 	 * @param exactHopsInput exact hops input object
 	 * @return number of paths
 	 */
 	public long findExactHops(Graph graph, ExactHopsInput exactHopsInput) {
+		return new QueryPlanner(graph).exactHops(exactHopsInput).getResult();
+	}
+
+	/**
+	 * Find shortest trace from the source vertex {@code src} to the destination
+	 * vertex {@code dst} in the graph {@code G}. When {@code src} and {@code dst}
+	 * are the same vertex the shortest trace is the shortest cycle through it.
+	 *
+	 * @param graph             graph
+	 * @param shortestPathInput shortest path input object
+	 * @return shortest trace, 0 if there is none
+	 */
+	public long findShortestPath(Graph graph, ShortestPathInput shortestPathInput) {
+		return findShortestPathIfExists(graph, shortestPathInput).orElse(0);
+	}
+
+	/**
+	 * Find shortest trace from the source vertex {@code src} to the destination
+	 * vertex {@code dst} in the graph {@code G}, telling a trace of latency 0
+	 * apart from no trace at all.
+	 *
+	 * @param graph             graph
+	 * @param shortestPathInput shortest path input object
+	 * @return shortest trace, empty if there is none
+	 */
+	public OptionalLong findShortestPathIfExists(Graph graph, ShortestPathInput shortestPathInput) {
 		long result = 0;
-		int src = exactHopsInput.getSrc();
-		int dst = exactHopsInput.getDst();
-		int hops = exactHopsInput.getHops();
+		int src = shortestPathInput.getSrc();
+		int dst = shortestPathInput.getDst();
 
 		if (src >= graph.getNumOfVertices() || dst >= graph.getNumOfVertices()) {
-			return 0;
+			return OptionalLong.empty();
 		}
 
-		Queue<Integer> vertQ = new LinkedList<Integer>();
-		Queue<Integer> distQ = new LinkedList<Integer>();
-		vertQ.add(src);
-		distQ.add(0);
-
-		while (!vertQ.isEmpty()) {
-			int v = vertQ.remove();
-			int count = distQ.remove();
-
-			if (graph.hasPath(v, dst)) {
-				for (Edge e : graph.adj(v)) {
-					int w = e.to();
-					if (count + 1 < hops) {
-						vertQ.add(w);
-						distQ.add(count + 1);
-					} else if (count + 1 == hops) {
-						if (w == dst) {
-							result++;
-						}
-					}
-				}
-			}
+		if (src == dst) {
+			result = MinimumCycles.lengthThrough(graph, src);
+		} else {
+			result = new ShortestPath(graph, src).distTo(dst);
+		}
+		if (result == Integer.MAX_VALUE) {
+			return OptionalLong.empty();
+		}
+		return OptionalLong.of(result);
+	}
+
+	/**
+	 * Find shortest cycle through every vertex in the graph {@code G} in one
+	 * batch.
+	 *
+	 * @param graph graph
+	 * @return shortest cycle through every vertex, 0 if there is none
+	 */
+	public long[] findShortestCycles(Graph graph) {
+		long[] result = new long[graph.getNumOfVertices()];
+		MinimumCycles cycles = new MinimumCycles(graph);
+		for (int v = 0; v < result.length; v++) {
+			int length = cycles.lengthThrough(v);
+			result[v] = length == Integer.MAX_VALUE ? 0 : length;
 		}
 		return result;
 	}
 
 	/**
-	 * Find shortest trace from the source vertex {@code src} to the destination
-	 * vertex {@code dst} in the graph {@code G}.
+	 * Find the vertices which can reach each of the services within {@code hops}
+	 * hops in the graph {@code G}, with the least number of hops, in one
+	 * bit-parallel search for all the services.
 	 *
-	 * @param graph             graph
-	 * @param shortestPathInput shortest path input object
+	 * @param graph       graph
+	 * @param impactInput impact input object
+	 * @return impacted vertices and hops of every service
+	 */
+	public ImpactAnalysis findImpact(Graph graph, ImpactInput impactInput) {
+		return new ImpactAnalysis(graph, impactInput.getServices(), impactInput.getHops());
+	}
+
+	/**
+	 * Find the edges which changed from the graph {@code before} to the graph
+	 * {@code after} and the shortest traces which got slower, searching again only
+	 * from the sources with a shortest path through a slower edge.
+	 *
+	 * @param before first snapshot of the graph
+	 * @param after  second snapshot of the graph
+	 * @return changed edges and regressions ranked by the increase of latency
+	 */
+	public SnapshotDiff diffSnapshots(Graph before, Graph after) {
+		return new SnapshotDiff(before, after);
+	}
+
+	/**
+	 * Find shortest trace of at most {@code hops} hops from the source vertex
+	 * {@code src} to the destination vertex {@code dst} in the graph {@code G}.
+	 *
+	 * @param graph                 graph
+	 * @param hopsShortestPathInput hop-constrained shortest path input object
 	 * @return shortest trace
 	 */
-	public long findShortestPath(Graph graph, ShortestPathInput shortestPathInput) {
+	public long findShortestPathWithinHops(Graph graph, HopsShortestPathInput hopsShortestPathInput) {
 		long result = 0;
-		int src = shortestPathInput.getSrc();
-		int dst = shortestPathInput.getDst();
+		int src = hopsShortestPathInput.getSrc();
+		int dst = hopsShortestPathInput.getDst();
 
 		if (src >= graph.getNumOfVertices() || dst >= graph.getNumOfVertices()) {
 			return 0;
 		}
 
-		ShortestPath sp = new ShortestPath(graph, src);
-		result = sp.distTo(dst);
+		result = MinPlus.shortestWithinHops(graph, src, dst, hopsShortestPathInput.getHops());
 		if (result == Integer.MAX_VALUE) {
 			return 0;
 		}
 		return result;
 	}
 
+	/**
+	 * Find the {@code k} fastest simple traces from the source vertex {@code src}
+	 * to the destination vertex {@code dst} in the graph {@code G}.
+	 *
+	 * @param graph          graph
+	 * @param topTracesInput top traces input object
+	 * @return traces in increasing order of latency
+	 */
+	public List<Trace> findFastestTraces(Graph graph, TopTracesInput topTracesInput) {
+		int src = topTracesInput.getSrc();
+		int dst = topTracesInput.getDst();
+
+		if (src >= graph.getNumOfVertices() || dst >= graph.getNumOfVertices()) {
+			return new ArrayList<>();
+		}
+		return new KShortestPaths(graph, src, dst).fastest(topTracesInput.getK());
+	}
+
+	/**
+	 * Find the {@code k} slowest simple traces from the source vertex {@code src}
+	 * to the destination vertex {@code dst} in the graph {@code G}.
+	 *
+	 * @param graph          graph
+	 * @param topTracesInput top traces input object
+	 * @return traces in decreasing order of latency
+	 */
+	public List<Trace> findSlowestTraces(Graph graph, TopTracesInput topTracesInput) {
+		int src = topTracesInput.getSrc();
+		int dst = topTracesInput.getDst();
+
+		if (src >= graph.getNumOfVertices() || dst >= graph.getNumOfVertices()) {
+			return new ArrayList<>();
+		}
+		return new KShortestPaths(graph, src, dst).slowest(topTracesInput.getK());
+	}
+
+	/**
+	 * Find the critical path, the slowest simple trace from the source vertex
+	 * {@code src} to any vertex in the graph {@code G}, spending at most
+	 * {@code hops} hops in any one strongly connected component.
+	 *
+	 * @param graph             graph
+	 * @param criticalPathInput critical path input object
+	 * @return critical path with the latency of every hop, {@code null} if the
+	 *         source vertex is not in the graph
+	 */
+	public Trace findCriticalPath(Graph graph, CriticalPathInput criticalPathInput) {
+		int src = criticalPathInput.getSrc();
+
+		if (src >= graph.getNumOfVertices()) {
+			return null;
+		}
+		return new CriticalPath(graph, src, criticalPathInput.getHops()).critical();
+	}
+
 	/**
 	 * Find number of paths from the source vertex {@code src} to the destination
 	 * vertex {@code dst} in the graph {@code G} for all values less than the given
-	 * {@code latency} latency value.
+	 * {@code latency} latency value. The algorithm is chosen by a
+	 * {@link QueryPlanner} from its estimated cost.
 	 *
 	 * @param graph            graph
 	 * @param uptoLatencyInput upto latency input object
 	 * @return number of paths
 	 */
 	public long findUptoLatency(Graph graph, UptoLatencyInput uptoLatencyInput) {
-		long result = 0;
-		int src = uptoLatencyInput.getSrc();
-		int dst = uptoLatencyInput.getDst();
-		int latency = uptoLatencyInput.getLatency();
+		return new QueryPlanner(graph).uptoLatency(uptoLatencyInput).getResult();
+	}
 
-		if (src >= graph.getNumOfVertices() || dst >= graph.getNumOfVertices()) {
-			return 0;
-		}
+	/**
+	 * Estimate the number of paths from the source vertex {@code src} to the
+	 * destination vertex {@code dst} in the graph {@code G} for all values upto the
+	 * given amount of latency, within an error and time budget.
+	 *
+	 * @param graph            graph
+	 * @param uptoLatencyInput upto latency input object
+	 * @param budget           error and time budget
+	 * @return estimated number of paths with its confidence interval
+	 */
+	public PathCountEstimate estimateUptoLatency(Graph graph, UptoLatencyInput uptoLatencyInput,
+			SamplingBudget budget) {
+		return new PathCountEstimator(graph).uptoLatency(uptoLatencyInput, budget);
+	}
 
-		Queue<Integer> vertQ = new LinkedList<Integer>();
-		Queue<Integer> distQ = new LinkedList<Integer>();
-		vertQ.add(src);
-		distQ.add(0);
-
-		while (!vertQ.isEmpty()) {
-			int v = vertQ.remove();
-			int count = distQ.remove();
-
-			if (graph.hasPath(v, dst)) {
-				for (Edge e : graph.adj(v)) {
-					int w = e.to();
-					if (count + graph.getWeight(v, w) < latency) {
-						vertQ.add(w);
-						distQ.add(count + graph.getWeight(v, w));
-						if (w == dst) {
-							result++;
-						}
-					}
-				}
-			}
+	/**
+	 * Lazily enumerate the paths from the source vertex {@code src} to the
+	 * destination vertex {@code dst} in the graph {@code G} for all values upto the
+	 * given {@code hops} value.
+	 *
+	 * @param graph         graph
+	 * @param uptoHopsInput upto hops input object
+	 * @param order         order of the paths
+	 * @return paths as a stream of vertices
+	 */
+	public Stream<int[]> enumerateUptoHops(Graph graph, UptoHopsInput uptoHopsInput, TraceSpliterator.Order order) {
+		return enumerate(graph, uptoHopsInput.getSrc(), uptoHopsInput.getDst(), 1, uptoHopsInput.getHops(),
+				Integer.MAX_VALUE, order);
+	}
+
+	/**
+	 * Lazily enumerate the paths from the source vertex {@code src} to the
+	 * destination vertex {@code dst} in the graph {@code G} for an exact
+	 * {@code hops} value.
+	 *
+	 * @param graph          graph
+	 * @param exactHopsInput exact hops input object
+	 * @param order          order of the paths
+	 * @return paths as a stream of vertices
+	 */
+	public Stream<int[]> enumerateExactHops(Graph graph, ExactHopsInput exactHopsInput, TraceSpliterator.Order order) {
+		return enumerate(graph, exactHopsInput.getSrc(), exactHopsInput.getDst(), exactHopsInput.getHops(),
+				exactHopsInput.getHops(), Integer.MAX_VALUE, order);
+	}
+
+	/**
+	 * Lazily enumerate the paths from the source vertex {@code src} to the
+	 * destination vertex {@code dst} in the graph {@code G} for all values less
+	 * than the given {@code latency} latency value.
+	 *
+	 * @param graph            graph
+	 * @param uptoLatencyInput upto latency input object
+	 * @param order            order of the paths
+	 * @return paths as a stream of vertices
+	 */
+	public Stream<int[]> enumerateUptoLatency(Graph graph, UptoLatencyInput uptoLatencyInput,
+			TraceSpliterator.Order order) {
+		return enumerate(graph, uptoLatencyInput.getSrc(), uptoLatencyInput.getDst(), 1, Integer.MAX_VALUE,
+				uptoLatencyInput.getLatency(), order);
+	}
+
+	/**
+	 * Lazily enumerate the paths from the source vertex {@code src} to the
+	 * destination vertex {@code dst} in the graph {@code G} within the given hop
+	 * and latency bounds.
+	 *
+	 * @param graph      graph
+	 * @param src        source vertex
+	 * @param dst        destination vertex
+	 * @param minHops    minimum number of hops
+	 * @param maxHops    maximum number of hops
+	 * @param maxLatency exclusive upper bound of the latency
+	 * @param order      order of the paths
+	 * @return paths as a stream of vertices
+	 */
+	private Stream<int[]> enumerate(Graph graph, int src, int dst, int minHops, int maxHops, int maxLatency,
+			TraceSpliterator.Order order) {
+		if (src >= graph.getNumOfVertices() || dst >= graph.getNumOfVertices()) {
+			return Stream.empty();
 		}
-		return result;
+		return StreamSupport.stream(new TraceSpliterator(graph, src, dst, minHops, maxHops, maxLatency, order),
+				false);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,180 @@
+package com.tracing;
+
+import com.tracing.model.graph.Edge;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * The {@code TraceSpliterator} class represents a lazy enumeration of the
+ * traces from a source vertex {@code src} to a destination vertex {@code dst}
+ * in an edge-weighted graph within a hop and latency bound. Partial traces are
+ * kept as linked prefixes so that traces sharing a prefix share its storage,
+ * and a trace is only copied into an {@code int[]} of vertices when it is
+ * yielded. A partial trace is discarded as soon as the least hops or latency
+ * from its last vertex to {@code dst} would exceed the bounds. The search runs
+ * on the internal ids of the backend, and a trace is translated to the
+ * original vertex ids when it is yielded.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+public class TraceSpliterator extends Spliterators.AbstractSpliterator<int[]> {
+
+	/**
+	 * The order in which the traces are yielded.
+	 */
+	public enum Order {
+		/**
+		 * Traces are yielded in increasing number of hops.
+		 */
+		BREADTH_FIRST,
+		/**
+		 * Traces are yielded following the most recent prefix first, which keeps the
+		 * frontier small.
+		 */
+		DEPTH_FIRST
+	}
+
+	private final Graph graph;
+	private final GraphBackend backend;
+	private final int dst;
+	private final int minHops;
+	private final int maxHops;
+	private final int maxLatency;
+	private final boolean latencyBounded;
+	private final Order order;
+	private final int[] hopsTo;
+	private final int[] latencyTo;
+	private final Deque<Prefix> frontier = new ArrayDeque<>();
+	private Prefix current;
+	private Iterator<Edge> edges;
+
+	/**
+	 * Initializes a lazy enumeration of the traces from the source vertex
+	 * {@code src} to the destination vertex {@code dst} having between
+	 * {@code minHops} and {@code maxHops} hops and a latency less than
+	 * {@code maxLatency}, or of any latency if it is {@code Integer.MAX_VALUE}.
+	 *
+	 * @param graph      graph
+	 * @param src        source vertex
+	 * @param dst        destination vertex
+	 * @param minHops    minimum number of hops of a trace
+	 * @param maxHops    maximum number of hops of a trace
+	 * @param maxLatency exclusive upper bound of the latency of a trace, or
+	 *                   {@code Integer.MAX_VALUE} for none
+	 * @param order      order of the traces
+	 */
+	TraceSpliterator(Graph graph, int src, int dst, int minHops, int maxHops, int maxLatency, Order order) {
+		super(Long.MAX_VALUE, ORDERED | NONNULL);
+		this.graph = graph;
+		this.backend = graph.getBackend();
+		this.dst = graph.toInternal(dst);
+		this.minHops = minHops;
+		this.maxHops = maxHops;
+		this.maxLatency = maxLatency;
+		this.latencyBounded = maxLatency != Integer.MAX_VALUE;
+		this.order = order;
+		this.hopsTo = SearchBounds.hopBounds(backend, this.dst);
+		this.latencyTo = latencyBounded ? SearchBounds.latencyBounds(backend, this.dst) : null;
+		if (canReach(graph.toInternal(src), 0, 0)) {
+			frontier.add(new Prefix(graph.toInternal(src), 0, 0, null));
+		}
+	}
+
+	/**
+	 * Yields the next trace to the given action, expanding the frontier only as
+	 * far as needed to find it.
+	 *
+	 * @param action action receiving the vertices of the trace
+	 * @return false if no more traces exist
+	 */
+	@Override
+	public boolean tryAdvance(Consumer<? super int[]> action) {
+		while (true) {
+			while (edges != null && edges.hasNext()) {
+				Edge e = edges.next();
+				int w = e.to();
+				int hops = current.hops + 1;
+				long latency = current.latency + e.weight();
+				if (hops > maxHops || (latencyBounded && latency >= maxLatency)) {
+					continue;
+				}
+				Prefix next = new Prefix(w, hops, latency, current);
+				if (canReach(w, hops, latency)) {
+					frontier.add(next);
+				}
+				if (w == dst && hops >= minHops) {
+					action.accept(next.toArray(graph));
+					return true;
+				}
+			}
+			if (frontier.isEmpty()) {
+				current = null;
+				edges = null;
+				return false;
+			}
+			current = order == Order.BREADTH_FIRST ? frontier.pollFirst() : frontier.pollLast();
+			edges = backend.adj(current.vertex).iterator();
+		}
+	}
+
+	/**
+	 * Returns if a partial trace ending at vertex {@code v} can still be extended
+	 * to the destination vertex within the hop and latency bounds.
+	 *
+	 * @param v       last vertex of the partial trace
+	 * @param hops    number of hops of the partial trace
+	 * @param latency latency of the partial trace
+	 * @return partial trace can be extended as a boolean
+	 */
+	private boolean canReach(int v, int hops, long latency) {
+		return hopsTo[v] <= maxHops - hops && (!latencyBounded || latencyTo[v] < maxLatency - latency);
+	}
+
+	/**
+	 * The class {@code Prefix} represents a partial trace as its last vertex
+	 * linked to the prefix it extends.
+	 */
+	private static final class Prefix {
+		private final int vertex;
+		private final int hops;
+		private final long latency;
+		private final Prefix parent;
+
+		/**
+		 * Initializes a prefix.
+		 *
+		 * @param vertex  last vertex
+		 * @param hops    number of hops
+		 * @param latency accumulated latency
+		 * @param parent  prefix being extended
+		 */
+		Prefix(int vertex, int hops, long latency, Prefix parent) {
+			this.vertex = vertex;
+			this.hops = hops;
+			this.latency = latency;
+			this.parent = parent;
+		}
+
+		/**
+		 * Returns the original ids of the vertices of the trace from the source
+		 * vertex.
+		 *
+		 * @param graph graph
+		 * @return vertices of the trace
+		 */
+		int[] toArray(Graph graph) {
+			int[] vertices = new int[hops + 1];
+			for (Prefix p = this; p != null; p = p.parent) {
+				vertices[p.hops] = graph.toExternal(p.vertex);
+			}
+			return vertices;
+		}
+	}
+}
@@ -0,0 +1,193 @@
+package com.tracing;
+
+import com.tracing.model.graph.Edge;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The {@code VertexOrdering} class represents a relabeling of the vertices of
+ * an edge-weighted graph which places vertices close in the graph close in
+ * memory. A {@link Graph} built with an ordering stores its backend under the
+ * internal ids and translates them back, so callers only see the original
+ * ids. The orderings treat the graph as undirected.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+public final class VertexOrdering {
+
+	/**
+	 * The type of an ordering.
+	 */
+	public enum Type {
+		/**
+		 * Vertices keep their ids.
+		 */
+		NONE,
+		/**
+		 * Vertices are numbered in breadth first order from a vertex of least degree
+		 * in every component.
+		 */
+		BFS,
+		/**
+		 * Vertices are numbered in breadth first order visiting neighbours by
+		 * increasing degree, then reversed, which keeps the edges close to the
+		 * diagonal of the adjacency matrix.
+		 */
+		REVERSE_CUTHILL_MCKEE,
+		/**
+		 * Vertices are numbered by decreasing degree, which keeps the rows of the hubs
+		 * together.
+		 */
+		DEGREE
+	}
+
+	private VertexOrdering() {
+	}
+
+	/**
+	 * Computes the internal id of every vertex.
+	 *
+	 * @param type     type of ordering
+	 * @param edges    edges
+	 * @param capacity number of vertex ids
+	 * @return internal id of every vertex, indexed by its original id
+	 */
+	public static int[] compute(Type type, List<Edge> edges, int capacity) {
+		int[] order;
+		switch (type) {
+		case BFS:
+			order = breadthFirst(edges, capacity, false);
+			break;
+		case REVERSE_CUTHILL_MCKEE:
+			order = breadthFirst(edges, capacity, true);
+			for (int i = 0, j = capacity - 1; i < j; i++, j--) {
+				int t = order[i];
+				order[i] = order[j];
+				order[j] = t;
+			}
+			break;
+		case DEGREE:
+			int[] degree = degrees(edges, capacity);
+			order = sortedBy(degree, capacity, true);
+			break;
+		default:
+			order = new int[capacity];
+			for (int v = 0; v < capacity; v++) {
+				order[v] = v;
+			}
+		}
+		return invert(order);
+	}
+
+	/**
+	 * Returns the inverse of a permutation.
+	 *
+	 * @param permutation permutation
+	 * @return inverse permutation
+	 */
+	public static int[] invert(int[] permutation) {
+		int[] inverse = new int[permutation.length];
+		for (int i = 0; i < permutation.length; i++) {
+			inverse[permutation[i]] = i;
+		}
+		return inverse;
+	}
+
+	/**
+	 * Returns the vertices in breadth first order over the undirected graph,
+	 * starting every component from a vertex of least degree.
+	 *
+	 * @param edges    edges
+	 * @param capacity number of vertex ids
+	 * @param byDegree visit the neighbours of a vertex by increasing degree
+	 * @return vertices in visiting order
+	 */
+	private static int[] breadthFirst(List<Edge> edges, int capacity, boolean byDegree) {
+		int[] degree = degrees(edges, capacity);
+		int[] offsets = new int[capacity + 1];
+		for (int v = 0; v < capacity; v++) {
+			offsets[v + 1] = offsets[v] + degree[v];
+		}
+		int[] neighbours = new int[offsets[capacity]];
+		int[] next = Arrays.copyOf(offsets, capacity);
+		for (Edge e : edges) {
+			neighbours[next[e.from()]++] = e.to();
+			neighbours[next[e.to()]++] = e.from();
+		}
+		if (byDegree) {
+			for (int v = 0; v < capacity; v++) {
+				long[] row = new long[degree[v]];
+				for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+					row[i - offsets[v]] = (long) degree[neighbours[i]] << 32 | neighbours[i];
+				}
+				Arrays.sort(row);
+				for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+					neighbours[i] = (int) row[i - offsets[v]];
+				}
+			}
+		}
+
+		int[] order = new int[capacity];
+		boolean[] marked = new boolean[capacity];
+		int head = 0, tail = 0;
+		for (int s : sortedBy(degree, capacity, false)) {
+			if (marked[s]) {
+				continue;
+			}
+			marked[s] = true;
+			order[tail++] = s;
+			while (head < tail) {
+				int v = order[head++];
+				for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+					int w = neighbours[i];
+					if (!marked[w]) {
+						marked[w] = true;
+						order[tail++] = w;
+					}
+				}
+			}
+		}
+		return order;
+	}
+
+	/**
+	 * Returns the undirected degree of every vertex.
+	 *
+	 * @param edges    edges
+	 * @param capacity number of vertex ids
+	 * @return degree of every vertex
+	 */
+	private static int[] degrees(List<Edge> edges, int capacity) {
+		int[] degree = new int[capacity];
+		for (Edge e : edges) {
+			degree[e.from()]++;
+			degree[e.to()]++;
+		}
+		return degree;
+	}
+
+	/**
+	 * Returns the vertices sorted by degree, ties broken by id.
+	 *
+	 * @param degree     degree of every vertex
+	 * @param capacity   number of vertex ids
+	 * @param decreasing sort by decreasing degree
+	 * @return sorted vertices
+	 */
+	private static int[] sortedBy(int[] degree, int capacity, boolean decreasing) {
+		long[] keys = new long[capacity];
+		for (int v = 0; v < capacity; v++) {
+			keys[v] = (long) (decreasing ? Integer.MAX_VALUE - degree[v] : degree[v]) << 32 | v;
+		}
+		Arrays.sort(keys);
+		int[] vertices = new int[capacity];
+		for (int i = 0; i < capacity; i++) {
+			vertices[i] = (int) keys[i];
+		}
+		return vertices;
+	}
+}
@@ -0,0 +1,110 @@
+package com.tracing.model.graph;
+
+import java.util.Arrays;
+
+/**
+ * The {@code Trace} class represents a trace in an edge-weighted graph as the
+ * sequence of vertices it visits and the latency of each of its hops.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+public class Trace implements Comparable<Trace> {
+	private final int[] vertices;
+	private final int[] latencies;
+	private final long latency;
+
+	/**
+	 * Initializes a trace visiting the given {@code vertices} with the given
+	 * latency of each hop.
+	 *
+	 * @param vertices  vertices of the trace
+	 * @param latencies latency of each hop, one less than the number of vertices
+	 */
+	public Trace(int[] vertices, int[] latencies) {
+		if (latencies.length != vertices.length - 1) {
+			throw new IllegalArgumentException("Expected " + (vertices.length - 1) + " hop latencies");
+		}
+		this.vertices = vertices.clone();
+		this.latencies = latencies.clone();
+		long sum = 0;
+		for (int l : latencies) {
+			sum += l;
+		}
+		this.latency = sum;
+	}
+
+	/**
+	 * Returns the vertices of the trace.
+	 *
+	 * @return vertices of the trace
+	 */
+	public int[] vertices() {
+		return vertices.clone();
+	}
+
+	/**
+	 * Returns the {@code i}-th vertex of the trace.
+	 *
+	 * @param i index of the vertex
+	 * @return {@code i}-th vertex of the trace
+	 */
+	public int vertex(int i) {
+		return vertices[i];
+	}
+
+	/**
+	 * Returns the number of hops of the trace.
+	 *
+	 * @return number of hops of the trace
+	 */
+	public int hops() {
+		return latencies.length;
+	}
+
+	/**
+	 * Returns the latency of the {@code i}-th hop of the trace.
+	 *
+	 * @param i index of the hop
+	 * @return latency of the {@code i}-th hop
+	 */
+	public int latency(int i) {
+		return latencies[i];
+	}
+
+	/**
+	 * Returns the total latency of the trace.
+	 *
+	 * @return total latency of the trace
+	 */
+	public long latency() {
+		return latency;
+	}
+
+	/**
+	 * Compares two traces by latency, then by number of hops, then by vertices.
+	 *
+	 * @param that other trace
+	 * @return -1, 0, or 1 depending on whether this trace is less than, equal to,
+	 *         or greater than the other trace
+	 */
+	public int compareTo(Trace that) {
+		int c = Long.compare(this.latency, that.latency);
+		if (c == 0) {
+			c = Integer.compare(this.hops(), that.hops());
+		}
+		return c != 0 ? c : Arrays.compare(this.vertices, that.vertices);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		return o instanceof Trace && Arrays.equals(vertices, ((Trace) o).vertices);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(vertices);
+	}
+}
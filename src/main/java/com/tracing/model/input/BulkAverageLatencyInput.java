@@ -0,0 +1,22 @@
+package com.tracing.model.input;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * The {@code BulkAverageLatencyInput} class represents input for bulk average
+ * latency case with the {@code vertices} of many traces laid out one after the
+ * other, where trace {@code i} is the vertices from index {@code offsets[i]}
+ * up to index {@code offsets[i + 1]}.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+@Builder
+@Value
+public class BulkAverageLatencyInput {
+	int[] vertices;
+	int[] offsets;
+}
@@ -0,0 +1,24 @@
+package com.tracing.model.input;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * The {@code CriticalPathInput} class represents input for critical path case
+ * with source {@code src} vertex and the maximum number of {@code hops} of a
+ * trace inside one strongly connected component, {@code DEFAULT_HOPS} unless
+ * given, as the search inside a component is exponential in it.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+@Builder
+@Value
+public class CriticalPathInput {
+	public static final int DEFAULT_HOPS = 6;
+	int src;
+	@Builder.Default
+	int hops = DEFAULT_HOPS;
+}
@@ -0,0 +1,22 @@
+package com.tracing.model.input;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * The {@code HopsShortestPathInput} class represents input for hop-constrained
+ * shortest path case with source {@code src} vertex, destination {@code dst}
+ * vertex and maximum number of {@code hops}.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+@Builder
+@Value
+public class HopsShortestPathInput {
+	int src;
+	int dst;
+	int hops;
+}
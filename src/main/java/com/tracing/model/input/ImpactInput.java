@@ -0,0 +1,21 @@
+package com.tracing.model.input;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * The {@code ImpactInput} class represents input for impact case with the
+ * degraded {@code services} and the maximum number of {@code hops} of a path
+ * reaching them.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+@Builder
+@Value
+public class ImpactInput {
+	int[] services;
+	int hops;
+}
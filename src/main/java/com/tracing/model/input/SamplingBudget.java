@@ -0,0 +1,27 @@
+package com.tracing.model.input;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * The {@code SamplingBudget} class represents the budget of an approximate
+ * path count with the {@code relativeError} to reach at the
+ * {@code confidence} level, the {@code timeMillis} and the {@code maxSamples}
+ * to spend at most and the {@code seed} of the random walks. A zero value
+ * leaves the error, time or samples unbounded and takes a confidence of 0.95,
+ * but the time or the samples must be bounded.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+@Builder
+@Value
+public class SamplingBudget {
+	double relativeError;
+	double confidence;
+	long timeMillis;
+	long maxSamples;
+	long seed;
+}
@@ -0,0 +1,22 @@
+package com.tracing.model.input;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * The {@code TopTracesInput} class represents input for top traces case with
+ * source {@code src} vertex, destination {@code dst} vertex and number of
+ * traces {@code k}.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+@Builder
+@Value
+public class TopTracesInput {
+	int src;
+	int dst;
+	int k;
+}
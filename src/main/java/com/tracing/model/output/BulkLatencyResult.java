@@ -0,0 +1,21 @@
+package com.tracing.model.output;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * The {@code BulkLatencyResult} class represents result of bulk average
+ * latency case with the {@code latencies} of the traces, 0 for an invalid
+ * trace, and the indices of the {@code invalidTraces} in increasing order.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+@Builder
+@Value
+public class BulkLatencyResult {
+	long[] latencies;
+	int[] invalidTraces;
+}
@@ -0,0 +1,36 @@
+package com.tracing.model.output;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * The {@code EdgeChange} class represents an edge whose latency differs
+ * between two snapshots of a graph, from the {@code from} vertex to the
+ * {@code to} vertex, with its latency {@code before} and {@code after},
+ * {@link #ABSENT} where the edge is absent, as an edge may have a latency of 0.
+ * Of parallel edges only the fastest is compared.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+@Builder
+@Value
+public class EdgeChange {
+	public static final int ABSENT = -1;
+	int from;
+	int to;
+	int before;
+	int after;
+
+	/**
+	 * Returns if the edge got slower or was removed, which can make shortest
+	 * traces slower.
+	 *
+	 * @return edge regressed as a boolean
+	 */
+	public boolean isRegression() {
+		return after == ABSENT || before != ABSENT && after > before;
+	}
+}
@@ -0,0 +1,43 @@
+package com.tracing.model.output;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * The {@code LatencyRegression} class represents a shortest trace from the
+ * {@code src} vertex to the {@code dst} vertex which got slower between two
+ * snapshots of a graph, with its latency {@code before} and {@code after}, 0
+ * when the trace no longer exists.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+@Builder
+@Value
+public class LatencyRegression {
+	int src;
+	int dst;
+	long before;
+	long after;
+
+	/**
+	 * Returns if the trace no longer exists.
+	 *
+	 * @return trace lost as a boolean
+	 */
+	public boolean isLost() {
+		return after == 0;
+	}
+
+	/**
+	 * Returns the increase of the latency.
+	 *
+	 * @return latency after less latency before, {@code Long.MAX_VALUE} for a lost
+	 *         trace
+	 */
+	public long getDelta() {
+		return isLost() ? Long.MAX_VALUE : after - before;
+	}
+}
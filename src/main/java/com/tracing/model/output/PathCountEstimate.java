@@ -0,0 +1,52 @@
+package com.tracing.model.output;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Locale;
+
+/**
+ * The {@code PathCountEstimate} class represents an approximate path count
+ * with the {@code query} type, the {@code estimate} of the number of paths, its
+ * {@code standardError}, the {@code lowerBound} and {@code upperBound} of its
+ * interval at the {@code confidence} level, the number of {@code samples} it is
+ * drawn from and the {@code elapsedNanos} it took. A count without paths is
+ * exact, with a zero interval.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+@Builder
+@Value
+public class PathCountEstimate {
+	QueryPlan.Query query;
+	double estimate;
+	double standardError;
+	double lowerBound;
+	double upperBound;
+	double confidence;
+	long samples;
+	long elapsedNanos;
+
+	/**
+	 * Returns the half width of the interval relative to the estimate.
+	 *
+	 * @return relative error, 0 for an estimate of 0
+	 */
+	public double getRelativeError() {
+		return estimate == 0 ? 0 : (upperBound - lowerBound) / 2 / estimate;
+	}
+
+	/**
+	 * Returns a readable description of the estimate.
+	 *
+	 * @return description of the estimate
+	 */
+	@Override
+	public String toString() {
+		return String.format(Locale.ROOT, "%s ~ %.4g [%.4g, %.4g] at %.0f%% from %d samples in %.3f ms", query,
+				estimate, lowerBound, upperBound, confidence * 100, samples, elapsedNanos / 1e6);
+	}
+}
@@ -0,0 +1,101 @@
+package com.tracing.model.output;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The {@code QueryPlan} class represents an executed plan of a path counting
+ * query with the {@code query} type, the chosen {@code strategy}, the
+ * {@code estimates} of every applicable strategy, the {@code actualCost} of
+ * the chosen one, the {@code elapsedNanos} it took and its {@code result}.
+ * Costs are in units of one matrix multiply-add, with vertex and edge visits
+ * weighted by their relative time.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+@Builder
+@Value
+public class QueryPlan {
+	Query query;
+	Strategy strategy;
+	Map<Strategy, Double> estimates;
+	long actualCost;
+	long elapsedNanos;
+	long result;
+
+	/**
+	 * The type of a query.
+	 */
+	public enum Query {
+		/**
+		 * Number of paths of 1 up to a given number of hops.
+		 */
+		UPTO_HOPS,
+		/**
+		 * Number of paths of an exact number of hops.
+		 */
+		EXACT_HOPS,
+		/**
+		 * Number of paths of less than a given latency.
+		 */
+		UPTO_LATENCY
+	}
+
+	/**
+	 * The algorithm answering a query.
+	 */
+	public enum Strategy {
+		/**
+		 * Breadth first enumeration of every partial path from the source, only run
+		 * when forced.
+		 */
+		BFS_ENUMERATION,
+		/**
+		 * Breadth first enumeration of the partial paths which can still reach the
+		 * destination within the remaining hops or latency.
+		 */
+		BOUNDED_SEARCH,
+		/**
+		 * Number of paths to every vertex per hop or per unit of latency, one layer at
+		 * a time.
+		 */
+		LAYERED_DP,
+		/**
+		 * Power of the adjacency matrix by repeated squaring, for hop queries on at
+		 * most 46340 vertices only.
+		 */
+		MATRIX_POWER
+	}
+
+	/**
+	 * Returns the estimated cost of the chosen strategy.
+	 *
+	 * @return estimated cost
+	 */
+	public double getEstimatedCost() {
+		return estimates.get(strategy);
+	}
+
+	/**
+	 * Returns a readable description of the plan with the estimated cost of every
+	 * applicable strategy and the actual cost of the chosen one.
+	 *
+	 * @return description of the plan
+	 */
+	public String explain() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format(Locale.ROOT, "%s using %s: estimated %.3g, actual %d, %.3f ms, result %d", query,
+				strategy, getEstimatedCost(), actualCost, elapsedNanos / 1e6, result));
+		for (Map.Entry<Strategy, Double> estimate : estimates.entrySet()) {
+			sb.append(String.format(Locale.ROOT, "%n  %s %-15s estimated %.3g",
+					estimate.getKey() == strategy ? "*" : " ", estimate.getKey(), estimate.getValue()));
+		}
+		return sb.toString();
+	}
+}
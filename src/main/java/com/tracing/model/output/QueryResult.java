@@ -0,0 +1,98 @@
+package com.tracing.model.output;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.OptionalLong;
+
+/**
+ * The {@code QueryResult} class represents the result of one query with the
+ * query {@code id}, the query {@code type}, whether a result was
+ * {@code found}, the {@code result} and the {@code elapsedNanos} it took. A
+ * path count is always found, so a count of 0 is a result of its own, while a
+ * latency of a trace which does not exist is not found.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+@Builder
+@Value
+public class QueryResult {
+	long id;
+	Type type;
+	boolean found;
+	long result;
+	long elapsedNanos;
+
+	/**
+	 * The type of a query.
+	 */
+	public enum Type {
+		/**
+		 * Average latency of a given trace.
+		 */
+		AVERAGE_LATENCY(false),
+		/**
+		 * Number of traces of at most a number of hops.
+		 */
+		UPTO_HOPS(true),
+		/**
+		 * Number of traces of exactly a number of hops.
+		 */
+		EXACT_HOPS(true),
+		/**
+		 * Latency of the shortest trace.
+		 */
+		SHORTEST_PATH(false),
+		/**
+		 * Number of traces of less than an amount of latency.
+		 */
+		UPTO_LATENCY(true);
+
+		private final boolean count;
+
+		Type(boolean count) {
+			this.count = count;
+		}
+
+		/**
+		 * Returns if the result of the query is a path count, for which 0 is a
+		 * result rather than a trace which does not exist.
+		 *
+		 * @return path count as a boolean
+		 */
+		public boolean isCount() {
+			return count;
+		}
+	}
+
+	/**
+	 * Returns the result of a query which was found, such as a path count.
+	 *
+	 * @param id           query id
+	 * @param type         query type
+	 * @param result       result of the query
+	 * @param elapsedNanos time taken by the query
+	 * @return result of the query
+	 */
+	public static QueryResult of(long id, Type type, long result, long elapsedNanos) {
+		return QueryResult.builder().id(id).type(type).found(true).result(result).elapsedNanos(elapsedNanos).build();
+	}
+
+	/**
+	 * Returns the result of a query as found by the {@code TraceProcessor}, for
+	 * which an empty latency means there is no trace.
+	 *
+	 * @param id           query id
+	 * @param type         query type
+	 * @param result       result of the query, empty if there is no trace
+	 * @param elapsedNanos time taken by the query
+	 * @return result of the query
+	 */
+	public static QueryResult of(long id, Type type, OptionalLong result, long elapsedNanos) {
+		return QueryResult.builder().id(id).type(type).found(result.isPresent()).result(result.orElse(0))
+				.elapsedNanos(elapsedNanos).build();
+	}
+}
@@ -0,0 +1,100 @@
+package com.tracing;
+
+import com.tracing.model.graph.Edge;
+import com.tracing.model.input.GraphInput;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The {@code BenchmarkGraphs} class represents random graphs used by the
+ * benchmarks.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+final class BenchmarkGraphs {
+
+	private BenchmarkGraphs() {
+	}
+
+	/**
+	 * Generates a random graph input in which every vertex has an edge to the next
+	 * vertex, so that the graph is strongly connected, plus random edges up to
+	 * the given density.
+	 *
+	 * @param numOfVertices number of vertices
+	 * @param density       probability of an edge between two vertices
+	 * @param maxWeight     maximum weight of an edge
+	 * @param seed          random seed
+	 * @return graph input
+	 */
+	static GraphInput random(int numOfVertices, double density, int maxWeight, long seed) {
+		Random random = new Random(seed);
+		List<Edge> edges = new ArrayList<>();
+		for (int v = 0; v < numOfVertices; v++) {
+			for (int w = 0; w < numOfVertices; w++) {
+				if (w == (v + 1) % numOfVertices || (v != w && random.nextDouble() < density)) {
+					edges.add(new Edge(v, w, 1 + random.nextInt(maxWeight)));
+				}
+			}
+		}
+		return GraphInput.builder().edges(edges).build();
+	}
+
+	/**
+	 * Generates a random graph input in which every vertex has edges to
+	 * {@code degree} vertices among the next {@code window} vertices, then
+	 * shuffles the vertex ids, so that the graph is local but its ids are not.
+	 *
+	 * @param numOfVertices number of vertices
+	 * @param degree        number of edges from every vertex
+	 * @param window        number of following vertices an edge can reach
+	 * @param seed          random seed
+	 * @return graph input
+	 */
+	static GraphInput shuffledLocal(int numOfVertices, int degree, int window, long seed) {
+		Random random = new Random(seed);
+		int[] label = new int[numOfVertices];
+		for (int v = 0; v < numOfVertices; v++) {
+			label[v] = v;
+		}
+		for (int v = numOfVertices - 1; v > 0; v--) {
+			int w = random.nextInt(v + 1);
+			int t = label[v];
+			label[v] = label[w];
+			label[w] = t;
+		}
+		List<Edge> edges = new ArrayList<>(numOfVertices * degree);
+		for (int v = 0; v < numOfVertices; v++) {
+			edges.add(new Edge(label[v], label[(v + 1) % numOfVertices], 1 + random.nextInt(20)));
+			for (int d = 1; d < degree; d++) {
+				int w = (v + 2 + random.nextInt(window)) % numOfVertices;
+				edges.add(new Edge(label[v], label[w], 1 + random.nextInt(20)));
+			}
+		}
+		return GraphInput.builder().edges(edges).build();
+	}
+
+	/**
+	 * Runs the given task repeatedly and returns the mean time of a run in
+	 * nanoseconds after a warm up.
+	 *
+	 * @param runs number of measured runs
+	 * @param task task
+	 * @return mean time of a run in nanoseconds
+	 */
+	static double time(int runs, Runnable task) {
+		for (int i = 0; i < runs; i++) {
+			task.run();
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < runs; i++) {
+			task.run();
+		}
+		return (double) (System.nanoTime() - start) / runs;
+	}
+}
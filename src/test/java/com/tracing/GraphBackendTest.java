@@ -0,0 +1,95 @@
+package com.tracing;
+
+import com.tracing.model.graph.Edge;
+import com.tracing.model.input.GraphInput;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * The {@code GraphBackendTest} class represents test class of the graph backends
+ * on graphs larger than the test input files.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+public class GraphBackendTest extends TestCase {
+	private static final int NUM_OF_VERTICES = 2000;
+	private static final int NUM_OF_HUBS = 5;
+	private List<Edge> edges;
+
+	public void setUp() throws Exception {
+		super.setUp();
+		Random random = new Random(7);
+		Set<Long> pairs = new HashSet<>();
+		edges = new ArrayList<>();
+		for (int v = 0; v < NUM_OF_VERTICES; v++) {
+			int degree = v < NUM_OF_HUBS ? NUM_OF_VERTICES / 2 : 1 + random.nextInt(8);
+			for (int d = 0; d < degree; d++) {
+				int w = v < NUM_OF_HUBS ? random.nextInt(NUM_OF_VERTICES)
+						: Math.floorMod(v + random.nextInt(64) - 32, NUM_OF_VERTICES);
+				if (pairs.add((long) v * NUM_OF_VERTICES + w)) {
+					edges.add(new Edge(v, w, 1 + random.nextInt(100)));
+				}
+			}
+		}
+	}
+
+	public void testBackendsMatch() {
+		GraphBackend expected = new MatrixBackend(edges, NUM_OF_VERTICES);
+		GraphBackend[] backends = { new CsrBackend(edges, NUM_OF_VERTICES, false),
+				new CsrBackend(edges, NUM_OF_VERTICES, true), new CompressedBackend(edges, NUM_OF_VERTICES) };
+		for (GraphBackend actual : backends) {
+			assertEquals(expected.capacity(), actual.capacity());
+			assertEquals(expected.numOfEdges(), actual.numOfEdges());
+			for (int v = 0; v < NUM_OF_VERTICES; v++) {
+				assertEquals(sorted(expected.adj(v)), toList(actual.adj(v)));
+				assertEquals(sorted(expected.adjR(v)), toList(actual.adjR(v)));
+			}
+			for (int v = 0; v < NUM_OF_VERTICES; v += 7) {
+				for (int w = 0; w < NUM_OF_VERTICES; w++) {
+					assertEquals(actual.type() + " " + v + "," + w, expected.weight(v, w), actual.weight(v, w));
+				}
+			}
+		}
+	}
+
+	public void testSelectBackend() {
+		assertEquals(GraphBackend.Type.MATRIX, Graph.selectBackend(5, 9));
+		assertEquals(GraphBackend.Type.MATRIX, Graph.selectBackend(1000, 500000));
+		assertEquals(GraphBackend.Type.CSR, Graph.selectBackend(1000, 5000));
+		assertEquals(GraphBackend.Type.CSR, Graph.selectBackend(1000000, 5000000));
+		assertEquals(GraphBackend.Type.OFF_HEAP,
+				Graph.selectBackend(100000000, Runtime.getRuntime().maxMemory() / Integer.BYTES));
+		assertEquals(GraphBackend.Type.CSR,
+				Graph.builder().graphInput(GraphInput.builder().edges(edges).build()).build().getBackend().type());
+	}
+
+	public void testCompressedSize() {
+		CompressedBackend backend = new CompressedBackend(edges, NUM_OF_VERTICES);
+		long csrBytes = CsrBackend.sizeInBytes(NUM_OF_VERTICES, edges.size());
+		assertTrue(backend.sizeInBytes() * 3 < csrBytes * 2);
+	}
+
+	private static List<String> sorted(Iterable<Edge> edges) {
+		List<Edge> list = new ArrayList<>();
+		edges.forEach(list::add);
+		list.sort(Comparator.comparingInt(Edge::to));
+		return toList(list);
+	}
+
+	private static List<String> toList(Iterable<Edge> edges) {
+		List<String> list = new ArrayList<>();
+		for (Edge e : edges) {
+			list.add(e.from() + "-" + e.to() + ":" + e.weight());
+		}
+		return list;
+	}
+}
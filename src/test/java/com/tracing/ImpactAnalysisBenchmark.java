@@ -0,0 +1,59 @@
+package com.tracing;
+
+import java.util.stream.IntStream;
+
+/**
+ * The {@code ImpactAnalysisBenchmark} class represents a benchmark of the
+ * blast radius of many services found by one {@link ImpactAnalysis} against a
+ * reverse search of {@link Graph#hasPath(int, int)} for every service, on a
+ * local graph of long paths and on a random graph of short ones. The graph is
+ * built in every run, as it caches the searches of {@code hasPath}, and the
+ * time of the build is taken off.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+public class ImpactAnalysisBenchmark {
+	private static final int NUM_OF_VERTICES = 20000;
+	private static final int RUNS = 3;
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args arguments
+	 */
+	public static void main(String[] args) {
+		for (int window : new int[] { 64, NUM_OF_VERTICES }) {
+			for (int numOfServices : new int[] { 64, 1024 }) {
+				run(window, numOfServices);
+			}
+		}
+	}
+
+	/**
+	 * Runs the benchmark for one graph and number of services.
+	 *
+	 * @param window        number of following vertices an edge can reach
+	 * @param numOfServices number of services
+	 */
+	private static void run(int window, int numOfServices) {
+		int[] services = IntStream.range(0, numOfServices).map(i -> i * (NUM_OF_VERTICES / numOfServices))
+				.toArray();
+		double perService = BenchmarkGraphs.time(RUNS, () -> {
+			Graph graph = new Graph(BenchmarkGraphs.shuffledLocal(NUM_OF_VERTICES, 4, window, 42));
+			for (int service : services) {
+				graph.hasPath(0, service);
+			}
+		});
+		double bitParallel = BenchmarkGraphs.time(RUNS, () -> {
+			Graph graph = new Graph(BenchmarkGraphs.shuffledLocal(NUM_OF_VERTICES, 4, window, 42));
+			new ImpactAnalysis(graph, services, Integer.MAX_VALUE);
+		});
+		double build = BenchmarkGraphs.time(RUNS,
+				() -> new Graph(BenchmarkGraphs.shuffledLocal(NUM_OF_VERTICES, 4, window, 42)));
+		System.out.printf("window=%d services=%d per service=%.0fms bit-parallel=%.0fms%n", window, numOfServices,
+				(perService - build) / 1e6, (bitParallel - build) / 1e6);
+	}
+}
@@ -0,0 +1,43 @@
+package com.tracing;
+
+/**
+ * The {@code MinPlusBenchmark} class represents a throughput benchmark of the
+ * hop-constrained shortest paths of {@link MinPlus} against repeated
+ * {@link ShortestPath} calls, which answer the unconstrained question.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+public class MinPlusBenchmark {
+	private static final int NUM_OF_VERTICES = 26;
+	private static final int RUNS = 2000;
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args arguments
+	 */
+	public static void main(String[] args) {
+		for (double density : new double[] { 0.1, 0.5, 0.9 }) {
+			Graph graph = new Graph(BenchmarkGraphs.random(NUM_OF_VERTICES, density, 20, 42));
+			int n = graph.getNumOfVertices();
+			for (int hops : new int[] { 3, n }) {
+				double dijkstra = BenchmarkGraphs.time(RUNS, () -> {
+					for (int src = 0; src < n; src++) {
+						new ShortestPath(graph, src);
+					}
+				});
+				double layered = BenchmarkGraphs.time(RUNS, () -> {
+					for (int src = 0; src < n; src++) {
+						MinPlus.shortestWithinHops(graph, src, hops);
+					}
+				});
+				double matrix = BenchmarkGraphs.time(RUNS, () -> MinPlus.allPairsWithinHops(graph, hops));
+				System.out.printf("density=%.1f hops=%d all pairs: dijkstra=%.0fus layered=%.0fus matrix=%.0fus%n",
+						density, hops, dijkstra / 1000, layered / 1000, matrix / 1000);
+			}
+		}
+	}
+}
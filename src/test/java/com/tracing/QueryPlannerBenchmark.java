@@ -0,0 +1,65 @@
+package com.tracing;
+
+import com.tracing.model.input.ExactHopsInput;
+import com.tracing.model.input.UptoLatencyInput;
+import com.tracing.model.output.QueryPlan;
+
+import java.util.function.Function;
+
+/**
+ * The {@code QueryPlannerBenchmark} class represents a benchmark of the
+ * strategies of {@link QueryPlanner} against the strategy it chooses, printing
+ * the explain output of every query.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+public class QueryPlannerBenchmark {
+	private static final int RUNS = 200;
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args arguments
+	 */
+	public static void main(String[] args) {
+		for (int numOfVertices : new int[] { 26, 400 }) {
+			Graph graph = new Graph(BenchmarkGraphs.random(numOfVertices, 4.0 / numOfVertices, 20, 42));
+			for (int hops : new int[] { 4, 10, 1000 }) {
+				ExactHopsInput input = ExactHopsInput.builder().src(0).dst(numOfVertices / 2).hops(hops).build();
+				System.out.println(new QueryPlanner(graph).exactHops(input).explain());
+				report(graph, strategy -> new QueryPlanner(graph, strategy).exactHops(input));
+			}
+			for (int latency : new int[] { 40, 120 }) {
+				UptoLatencyInput input = UptoLatencyInput.builder().src(0).dst(numOfVertices / 2).latency(latency)
+						.build();
+				System.out.println(new QueryPlanner(graph).uptoLatency(input).explain());
+				report(graph, strategy -> new QueryPlanner(graph, strategy).uptoLatency(input));
+			}
+		}
+	}
+
+	/**
+	 * Prints the time of every strategy answering a query, skipping those which
+	 * do not apply or would run for too long.
+	 *
+	 * @param graph graph
+	 * @param query query run with a strategy
+	 */
+	private static void report(Graph graph, Function<QueryPlan.Strategy, QueryPlan> query) {
+		QueryPlan plan = query.apply(null);
+		StringBuilder sb = new StringBuilder("  time:");
+		for (QueryPlan.Strategy strategy : QueryPlan.Strategy.values()) {
+			Double estimate = plan.getEstimates().get(strategy);
+			if (estimate == null || estimate > 1e7) {
+				continue;
+			}
+			double nanos = BenchmarkGraphs.time(RUNS, () -> query.apply(strategy));
+			sb.append(String.format(" %s=%.1fus (%.2fns/unit)", strategy, nanos / 1000,
+					nanos / query.apply(strategy).getActualCost()));
+		}
+		System.out.println(sb);
+	}
+}
@@ -0,0 +1,63 @@
+package com.tracing;
+
+import com.tracing.model.output.QueryResult;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.util.OptionalLong;
+
+/**
+ * The {@code ResultSinkBenchmark} class represents a benchmark of writing many
+ * results with every {@link ResultSink}, directly and through an
+ * {@link AsyncSink}, against a {@code println} per result, to a stream which
+ * discards the bytes so that only the cost of the writing is measured.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+public class ResultSinkBenchmark {
+	private static final int NUM_OF_RESULTS = 1000000;
+	private static final int RUNS = 3;
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args arguments
+	 */
+	public static void main(String[] args) {
+		double println = BenchmarkGraphs.time(RUNS, () -> {
+			PrintStream out = new PrintStream(OutputStream.nullOutputStream());
+			for (int k = 0; k < NUM_OF_RESULTS; k++) {
+				out.println(k % 10 == 0 ? "NO SUCH TRACE" : Long.toString(k));
+			}
+		});
+		System.out.printf("println=%.0fms%n", println / 1e6);
+		for (ResultSink.Format format : ResultSink.Format.values()) {
+			double direct = BenchmarkGraphs.time(RUNS,
+					() -> write(ResultSink.create(format, OutputStream.nullOutputStream())));
+			double async = BenchmarkGraphs.time(RUNS,
+					() -> write(new AsyncSink(ResultSink.create(format, OutputStream.nullOutputStream()), 4096)));
+			System.out.printf("format=%s direct=%.0fms async=%.0fms%n", format, direct / 1e6, async / 1e6);
+		}
+	}
+
+	/**
+	 * Writes the results to a sink and closes it.
+	 *
+	 * @param sink sink of the results
+	 */
+	private static void write(ResultSink sink) {
+		try (ResultSink results = sink) {
+			for (int k = 0; k < NUM_OF_RESULTS; k++) {
+				results.write(QueryResult.of(k, QueryResult.Type.AVERAGE_LATENCY,
+						k % 10 == 0 ? OptionalLong.empty() : OptionalLong.of(k), 1000 + k));
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,218 @@
+package com.tracing;
+
+import com.tracing.model.graph.Edge;
+import com.tracing.model.input.ExactHopsInput;
+import com.tracing.model.input.InputParser;
+import com.tracing.model.input.TracingInput;
+import com.tracing.model.input.UptoHopsInput;
+import com.tracing.model.input.UptoLatencyInput;
+import com.tracing.model.output.QueryPlan.Query;
+
+import java.io.File;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+
+/**
+ * The {@code SearchBoundsBenchmark} class represents a benchmark of the path
+ * counts of {@link TraceProcessor} on the test input files and on two random
+ * graphs, the smaller one of the 26 vertices a graph could hold before. With
+ * every count it prints the partial paths expanded by a search pruned by the
+ * {@link SearchBounds} to the destination against a search pruned by
+ * {@link Graph#hasPath(int, int)} only, which {@code TraceProcessor} used
+ * before the bounds; both searches are counted here, apart from the query
+ * code.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+public class SearchBoundsBenchmark {
+	private static final int NUM_OF_VERTICES = 400;
+	private static final int RUNS = 20;
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args arguments
+	 */
+	public static void main(String[] args) {
+		File[] files = new File(Paths.get(System.getProperty("user.dir"), "src", "test", "resources", "problems")
+				.toString()).listFiles();
+		Arrays.sort(files);
+		for (File file : files) {
+			TracingInput tracingInput = new InputParser().parse(String.valueOf(file));
+			Graph graph = new Graph(tracingInput.getGraphInput());
+			UptoHopsInput uptoHops = tracingInput.getUptoHopsInput();
+			ExactHopsInput exactHops = tracingInput.getExactHopsInput();
+			UptoLatencyInput uptoLatency = tracingInput.getUptoLatencyInput();
+			report(file.getName(), graph, Query.UPTO_HOPS, uptoHops.getSrc(), uptoHops.getDst(), uptoHops.getHops());
+			report(file.getName(), graph, Query.EXACT_HOPS, exactHops.getSrc(), exactHops.getDst(),
+					exactHops.getHops());
+			report(file.getName(), graph, Query.UPTO_LATENCY, uptoLatency.getSrc(), uptoLatency.getDst(),
+					uptoLatency.getLatency());
+		}
+
+		for (int numOfVertices : new int[] { 26, NUM_OF_VERTICES }) {
+			String name = "random n=" + numOfVertices;
+			double density = numOfVertices == 26 ? 0.15 : 4.0 / numOfVertices;
+			Graph graph = new Graph(BenchmarkGraphs.random(numOfVertices, density, 20, 42));
+			for (int hops : new int[] { 6, 8 }) {
+				report(name, graph, Query.UPTO_HOPS, 0, numOfVertices / 2, hops);
+				report(name, graph, Query.EXACT_HOPS, 0, numOfVertices / 2, hops);
+			}
+			for (int latency : new int[] { 60, 70 }) {
+				report(name, graph, Query.UPTO_LATENCY, 0, numOfVertices / 2, latency);
+			}
+		}
+	}
+
+	/**
+	 * Prints the result and the time of a query answered by
+	 * {@link TraceProcessor}, and the partial paths expanded by both searches.
+	 *
+	 * @param name  name of the graph
+	 * @param graph graph
+	 * @param query type of query
+	 * @param src   source vertex
+	 * @param dst   destination vertex
+	 * @param limit hops or latency of the query
+	 */
+	private static void report(String name, Graph graph, Query query, int src, int dst, int limit) {
+		long result = find(graph, query, src, dst, limit);
+		long[] reachable = hasPathSearch(graph, query, src, dst, limit);
+		long[] bounded = boundedSearch(graph, query, src, dst, limit);
+		if (reachable[0] != result || bounded[0] != result) {
+			throw new IllegalStateException(name + " " + query + " counts " + result + ", " + reachable[0] + " and "
+					+ bounded[0] + " paths");
+		}
+		double nanos = BenchmarkGraphs.time(RUNS, () -> find(graph, query, src, dst, limit));
+		System.out.printf("%-16s %-12s %d->%d limit=%-4d paths=%-10d time=%.3fms expanded hasPath=%-10d"
+				+ " bounds=%-10d (%.1fx)%n", name, query, src, dst, limit, result, nanos / 1e6, reachable[1],
+				bounded[1], (double) reachable[1] / Math.max(bounded[1], 1));
+	}
+
+	/**
+	 * Counts the paths of a query with {@link TraceProcessor}.
+	 *
+	 * @param graph graph
+	 * @param query type of query
+	 * @param src   source vertex
+	 * @param dst   destination vertex
+	 * @param limit hops or latency of the query
+	 * @return number of paths
+	 */
+	static long find(Graph graph, Query query, int src, int dst, int limit) {
+		TraceProcessor traceProcessor = new TraceProcessor();
+		switch (query) {
+		case UPTO_HOPS:
+			return traceProcessor.findUptoHops(graph, UptoHopsInput.builder().src(src).dst(dst).hops(limit).build());
+		case EXACT_HOPS:
+			return traceProcessor.findExactHops(graph,
+					ExactHopsInput.builder().src(src).dst(dst).hops(limit).build());
+		default:
+			return traceProcessor.findUptoLatency(graph,
+					UptoLatencyInput.builder().src(src).dst(dst).latency(limit).build());
+		}
+	}
+
+	/**
+	 * Counts the paths by the breadth first search which preceded the
+	 * {@link SearchBounds}: every partial path is queued while it is within the
+	 * hops or latency, and its edges are only followed if its last vertex has a
+	 * path to {@code dst}.
+	 *
+	 * @param graph graph
+	 * @param query type of query
+	 * @param src   source vertex
+	 * @param dst   destination vertex
+	 * @param limit hops or latency of the query
+	 * @return number of paths and number of partial paths whose edges were
+	 *         followed
+	 */
+	static long[] hasPathSearch(Graph graph, Query query, int src, int dst, int limit) {
+		long result = 0, expanded = 0;
+		if (src >= graph.getNumOfVertices() || dst >= graph.getNumOfVertices()) {
+			return new long[] { result, expanded };
+		}
+		Queue<Integer> vertQ = new ArrayDeque<>();
+		Queue<Integer> distQ = new ArrayDeque<>();
+		vertQ.add(src);
+		distQ.add(0);
+		while (!vertQ.isEmpty()) {
+			int v = vertQ.remove();
+			int count = distQ.remove();
+			if (!graph.hasPath(v, dst)) {
+				continue;
+			}
+			expanded++;
+			for (Edge e : graph.adj(v)) {
+				int w = e.to();
+				int dist = count + (query == Query.UPTO_LATENCY ? e.weight() : 1);
+				boolean within = query == Query.UPTO_HOPS ? dist <= limit : dist < limit;
+				if (within) {
+					vertQ.add(w);
+					distQ.add(dist);
+				}
+				if (w == dst && (query == Query.EXACT_HOPS ? dist == limit : within)) {
+					result++;
+				}
+			}
+		}
+		return new long[] { result, expanded };
+	}
+
+	/**
+	 * Counts the paths by the breadth first search of the bounded search of
+	 * {@link QueryPlanner}: a partial path is only queued while the lower bound
+	 * from its last vertex to {@code dst} is within the remaining hops, or below
+	 * the remaining latency.
+	 *
+	 * @param graph graph
+	 * @param query type of query
+	 * @param src   source vertex
+	 * @param dst   destination vertex
+	 * @param limit hops or latency of the query
+	 * @return number of paths and number of partial paths whose edges were
+	 *         followed
+	 */
+	static long[] boundedSearch(Graph graph, Query query, int src, int dst, int limit) {
+		long result = 0, expanded = 0;
+		if (src >= graph.getNumOfVertices() || dst >= graph.getNumOfVertices()) {
+			return new long[] { result, expanded };
+		}
+		GraphBackend backend = graph.getBackend();
+		boolean latency = query == Query.UPTO_LATENCY;
+		src = graph.toInternal(src);
+		dst = graph.toInternal(dst);
+		int[] bounds = latency ? SearchBounds.latencyBounds(backend, dst) : SearchBounds.hopBounds(backend, dst);
+		Queue<Integer> vertQ = new ArrayDeque<>();
+		Queue<Integer> distQ = new ArrayDeque<>();
+		if (latency ? bounds[src] < limit : bounds[src] <= limit) {
+			vertQ.add(src);
+			distQ.add(0);
+		}
+		while (!vertQ.isEmpty()) {
+			int v = vertQ.remove();
+			int count = distQ.remove();
+			expanded++;
+			for (Edge e : backend.adj(v)) {
+				int w = e.to();
+				int dist = count + (latency ? e.weight() : 1);
+				if (latency ? dist >= limit : dist > limit) {
+					continue;
+				}
+				if (w == dst && (query != Query.EXACT_HOPS || dist == limit)) {
+					result++;
+				}
+				if (latency ? bounds[w] < limit - dist : dist < limit && bounds[w] <= limit - dist) {
+					vertQ.add(w);
+					distQ.add(dist);
+				}
+			}
+		}
+		return new long[] { result, expanded };
+	}
+}
@@ -0,0 +1,68 @@
+package com.tracing;
+
+import com.tracing.model.graph.Edge;
+import com.tracing.model.input.GraphInput;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * The {@code SnapshotDiffBenchmark} class represents a benchmark of the
+ * regressions between two snapshots found by a {@link SnapshotDiff} against a
+ * shortest path search from every source in both snapshots, for an increasing
+ * number of slower edges, on a local graph of long paths, where some edges are
+ * on the shortest paths of most sources, and on a random graph of short ones.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+public class SnapshotDiffBenchmark {
+	private static final int NUM_OF_VERTICES = 2000;
+	private static final int RUNS = 3;
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args arguments
+	 */
+	public static void main(String[] args) {
+		for (int window : new int[] { 64, NUM_OF_VERTICES }) {
+			for (int slower : new int[] { 1, 10, 100 }) {
+				run(window, slower);
+			}
+		}
+	}
+
+	/**
+	 * Runs the benchmark for one graph and number of slower edges.
+	 *
+	 * @param window number of following vertices an edge can reach
+	 * @param slower number of edges made slower
+	 */
+	private static void run(int window, int slower) {
+		GraphInput before = BenchmarkGraphs.shuffledLocal(NUM_OF_VERTICES, 4, window, 42);
+		Random random = new Random(slower);
+		List<Edge> edges = new ArrayList<>(before.getEdges());
+		for (int k = 0; k < slower; k++) {
+			int j = random.nextInt(edges.size());
+			Edge e = edges.get(j);
+			edges.set(j, new Edge(e.from(), e.to(), e.weight() + 1 + random.nextInt(10)));
+		}
+		Graph graphBefore = new Graph(before);
+		Graph graphAfter = new Graph(GraphInput.builder().edges(edges).build());
+		double everySource = BenchmarkGraphs.time(RUNS,
+				() -> IntStream.range(0, NUM_OF_VERTICES).parallel().forEach(src -> {
+					new ShortestPath(graphBefore, src);
+					new ShortestPath(graphAfter, src);
+				}));
+		int[] affected = new int[1];
+		double diff = BenchmarkGraphs.time(RUNS,
+				() -> affected[0] = new SnapshotDiff(graphBefore, graphAfter).affectedSources().length);
+		System.out.printf("window=%d slower edges=%d affected sources=%d every source=%.0fms diff=%.0fms%n", window,
+				slower, affected[0], everySource / 1e6, diff / 1e6);
+	}
+}
@@ -1,18 +1,55 @@
 package com.tracing;
 
+import com.tracing.model.graph.Edge;
+import com.tracing.model.graph.Trace;
+import com.tracing.model.input.AverageLatencyInput;
+import com.tracing.model.input.BulkAverageLatencyInput;
+import com.tracing.model.input.CriticalPathInput;
+import com.tracing.model.input.ExactHopsInput;
+import com.tracing.model.input.GraphInput;
+import com.tracing.model.input.HopsShortestPathInput;
+import com.tracing.model.input.ImpactInput;
 import com.tracing.model.input.InputParser;
+import com.tracing.model.input.SamplingBudget;
+import com.tracing.model.input.ShortestPathInput;
+import com.tracing.model.input.TopTracesInput;
 import com.tracing.model.input.TracingInput;
+import com.tracing.model.input.UptoHopsInput;
+import com.tracing.model.input.UptoLatencyInput;
+import com.tracing.model.output.BulkLatencyResult;
+import com.tracing.model.output.EdgeChange;
+import com.tracing.model.output.LatencyRegression;
+import com.tracing.model.output.PathCountEstimate;
+import com.tracing.model.output.QueryPlan;
+import com.tracing.model.output.QueryResult;
 import junit.framework.TestCase;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * The {@code TraceProcessorTest} class represents test class of TraceProcessor.
@@ -83,6 +120,59 @@ public class TraceProcessorTest extends TestCase {
 		}
 	}
 
+	public void testFindAverageLatencies() {
+		int i = ZERO;
+		for (List<String> solution : solutions) {
+			TraceProcessor traceProcessor = new TraceProcessor();
+			Graph graph = new Graph(tracingInputs[i].getGraphInput());
+			List<Integer> vertices = new ArrayList<>();
+			List<Integer> offsets = new ArrayList<>();
+			List<Long> expected = new ArrayList<>();
+			for (int repeat = 0; repeat < 2000; repeat++) {
+				for (int j = AVG_LATENCY_INPUT_START_INDEX; j <= AVG_LATENCY_INPUT_END_INDEX; j++) {
+					AverageLatencyInput input = tracingInputs[i].getAverageLatencyInput()[j];
+					offsets.add(vertices.size());
+					vertices.addAll(input.getVertices());
+					expected.add(Long.parseLong(solution.get(j)));
+				}
+				offsets.add(vertices.size());
+				expected.add(0L);
+			}
+			offsets.add(vertices.size());
+			BulkAverageLatencyInput input = BulkAverageLatencyInput.builder()
+					.vertices(vertices.stream().mapToInt(Integer::intValue).toArray())
+					.offsets(offsets.stream().mapToInt(Integer::intValue).toArray()).build();
+			BulkLatencyResult result = traceProcessor.findAverageLatencies(graph, input);
+			assertEquals(expected.size(), result.getLatencies().length);
+			List<Integer> invalid = new ArrayList<>();
+			for (int j = 0; j < expected.size(); j++) {
+				assertEquals("Error in " + filesProblems.get(i).getName() + " : Trace - " + j, (long) expected.get(j),
+						result.getLatencies()[j]);
+				if (expected.get(j) == 0) {
+					invalid.add(j);
+				}
+			}
+			assertTrue(Arrays.equals(invalid.stream().mapToInt(Integer::intValue).toArray(),
+					result.getInvalidTraces()));
+
+			int n = graph.getNumOfVertices();
+			int[] outside = { 0, 1, -1, 0, 0, n, n + 1, 0, 1, 0 };
+			result = traceProcessor.findAverageLatencies(graph,
+					BulkAverageLatencyInput.builder().vertices(outside).offsets(new int[] { 0, 3, 5, 7, 8 }).build());
+			assertTrue(Arrays.equals(new int[] { 0, 1, 2, 3 }, result.getInvalidTraces()));
+			for (int[] malformed : new int[][] { { 0, 3, 2 }, { 0, outside.length + 1 }, { -1, 2 } }) {
+				try {
+					traceProcessor.findAverageLatencies(graph,
+							BulkAverageLatencyInput.builder().vertices(outside).offsets(malformed).build());
+					fail("malformed offsets accepted : " + Arrays.toString(malformed));
+				} catch (IllegalArgumentException e) {
+					// expected
+				}
+			}
+			i++;
+		}
+	}
+
 	public void testFindUptoHops() {
 		int i = ZERO;
 		for (List<String> solution : solutions) {
@@ -138,4 +228,1069 @@ public class TraceProcessorTest extends TestCase {
 			i++;
 		}
 	}
+
+	public void testEnumerateUptoHops() {
+		int i = ZERO;
+		for (List<String> solution : solutions) {
+			TraceProcessor traceProcessor = new TraceProcessor();
+			Graph graph = new Graph(tracingInputs[i].getGraphInput());
+			UptoHopsInput input = tracingInputs[i].getUptoHopsInput();
+			long expected = Long.parseLong(solution.get(UPTO_HOPS_INPUT_INDEX));
+			for (TraceSpliterator.Order order : TraceSpliterator.Order.values()) {
+				List<int[]> traces = traceProcessor.enumerateUptoHops(graph, input, order)
+						.collect(Collectors.toList());
+				assertEquals("Error in " + filesProblems.get(i).getName() + " : " + order, expected, traces.size());
+				for (int[] trace : traces) {
+					assertTrace(graph, trace, input.getSrc(), input.getDst());
+					assertTrue(trace.length - 1 <= input.getHops());
+				}
+			}
+			i++;
+		}
+	}
+
+	public void testEnumerateExactHops() {
+		int i = ZERO;
+		for (List<String> solution : solutions) {
+			TraceProcessor traceProcessor = new TraceProcessor();
+			Graph graph = new Graph(tracingInputs[i].getGraphInput());
+			ExactHopsInput input = tracingInputs[i].getExactHopsInput();
+			long expected = Long.parseLong(solution.get(EXACT_HOPS_INPUT_INDEX));
+			for (TraceSpliterator.Order order : TraceSpliterator.Order.values()) {
+				List<int[]> traces = traceProcessor.enumerateExactHops(graph, input, order)
+						.collect(Collectors.toList());
+				assertEquals("Error in " + filesProblems.get(i).getName() + " : " + order, expected, traces.size());
+				for (int[] trace : traces) {
+					assertTrace(graph, trace, input.getSrc(), input.getDst());
+					assertEquals(input.getHops(), trace.length - 1);
+				}
+			}
+			i++;
+		}
+	}
+
+	public void testEnumerateUptoLatency() {
+		int i = ZERO;
+		for (List<String> solution : solutions) {
+			TraceProcessor traceProcessor = new TraceProcessor();
+			Graph graph = new Graph(tracingInputs[i].getGraphInput());
+			UptoLatencyInput input = tracingInputs[i].getUptoLatencyInput();
+			long expected = Long.parseLong(solution.get(UPTO_LATENCY_INPUT_INDEX));
+			for (TraceSpliterator.Order order : TraceSpliterator.Order.values()) {
+				List<int[]> traces = traceProcessor.enumerateUptoLatency(graph, input, order)
+						.collect(Collectors.toList());
+				assertEquals("Error in " + filesProblems.get(i).getName() + " : " + order, expected, traces.size());
+				for (int[] trace : traces) {
+					assertTrace(graph, trace, input.getSrc(), input.getDst());
+					assertTrue(latency(graph, trace) < input.getLatency());
+				}
+			}
+			i++;
+		}
+
+		TraceProcessor traceProcessor = new TraceProcessor();
+		Graph graph = new Graph(GraphInput.builder().edges(Arrays.asList(new Edge(0, 1, Integer.MAX_VALUE),
+				new Edge(1, 2, 2000000000), new Edge(0, 2, 2000000000))).build());
+		assertEquals(Arrays.asList("[0, 1]"), toStrings(traceProcessor
+				.enumerateUptoHops(graph, UptoHopsInput.builder().src(0).dst(1).hops(1).build(),
+						TraceSpliterator.Order.BREADTH_FIRST)));
+		assertEquals(Arrays.asList("[0, 1, 2]", "[0, 2]"), toStrings(traceProcessor
+				.enumerateUptoHops(graph, UptoHopsInput.builder().src(0).dst(2).hops(2).build(),
+						TraceSpliterator.Order.DEPTH_FIRST)));
+		assertEquals(Arrays.asList("[0, 2]"), toStrings(traceProcessor.enumerateUptoLatency(graph,
+				UptoLatencyInput.builder().src(0).dst(2).latency(Integer.MAX_VALUE - 1).build(),
+				TraceSpliterator.Order.BREADTH_FIRST)));
+	}
+
+	public void testEnumerateIsLazy() {
+		TraceProcessor traceProcessor = new TraceProcessor();
+		Graph graph = new Graph(tracingInputs[ZERO].getGraphInput());
+		UptoLatencyInput input = UptoLatencyInput.builder().src(2).dst(2).latency(Integer.MAX_VALUE).build();
+		List<int[]> traces = traceProcessor.enumerateUptoLatency(graph, input, TraceSpliterator.Order.BREADTH_FIRST)
+				.limit(1000).collect(Collectors.toList());
+		assertEquals(1000, traces.size());
+		for (int j = 1; j < traces.size(); j++) {
+			assertTrue(traces.get(j - 1).length <= traces.get(j).length);
+		}
+	}
+
+	public void testFindFastestTraces() {
+		int i = ZERO;
+		for (List<String> solution : solutions) {
+			TraceProcessor traceProcessor = new TraceProcessor();
+			Graph graph = new Graph(tracingInputs[i].getGraphInput());
+			for (int src = 0; src < graph.getNumOfVertices(); src++) {
+				for (int dst = 0; dst < graph.getNumOfVertices(); dst++) {
+					TopTracesInput all = TopTracesInput.builder().src(src).dst(dst).k(Integer.MAX_VALUE).build();
+					List<Trace> expected = traceProcessor.findSlowestTraces(graph, all);
+					Collections.reverse(expected);
+					TopTracesInput input = TopTracesInput.builder().src(src).dst(dst).k(5).build();
+					List<Trace> actual = traceProcessor.findFastestTraces(graph, input);
+					assertEquals(Math.min(5, expected.size()), actual.size());
+					for (int j = 0; j < actual.size(); j++) {
+						assertEquals("Error in " + filesProblems.get(i).getName() + " : " + src + "," + dst,
+								expected.get(j).latency(), actual.get(j).latency());
+						assertTrace(graph, actual.get(j).vertices(), src, dst);
+						assertEquals(actual.get(j).latency(), latency(graph, actual.get(j).vertices()));
+					}
+					if (!actual.isEmpty()) {
+						long shortest = traceProcessor.findShortestPath(graph,
+								ShortestPathInput.builder().src(src).dst(dst).build());
+						assertEquals(shortest, actual.get(0).latency());
+					}
+				}
+			}
+			i++;
+		}
+	}
+
+	public void testFindCriticalPath() {
+		int i = ZERO;
+		for (List<String> solution : solutions) {
+			Graph graph = new Graph(tracingInputs[i].getGraphInput());
+			assertCriticalPath("Error in " + filesProblems.get(i).getName() + " : ", graph);
+			i++;
+		}
+		Graph graph = new Graph(BenchmarkGraphs.random(12, 0.25, 9, 5));
+		assertCriticalPath("Error in random graph : ", graph);
+		assertNull(new TraceProcessor().findCriticalPath(graph,
+				CriticalPathInput.builder().src(graph.getNumOfVertices()).build()));
+		assertEquals(CriticalPathInput.DEFAULT_HOPS, CriticalPathInput.builder().src(0).build().getHops());
+
+		int n = 50000;
+		List<Edge> ring = new ArrayList<>();
+		for (int v = 0; v < n; v++) {
+			ring.add(new Edge(v, (v + 1) % n, 1 + v % 3));
+		}
+		Graph ringGraph = new Graph(GraphInput.builder().edges(ring).build());
+		Trace critical = new TraceProcessor().findCriticalPath(ringGraph,
+				CriticalPathInput.builder().src(0).hops(Integer.MAX_VALUE).build());
+		assertEquals(n - 1, critical.hops());
+		assertEquals(n - 1, critical.vertex(n - 1));
+		assertEquals(IntStream.range(0, n - 1).map(v -> 1 + v % 3).sum(), critical.latency());
+	}
+
+	private void assertCriticalPath(String error, Graph graph) {
+		TraceProcessor traceProcessor = new TraceProcessor();
+		for (int src = 0; src < graph.getNumOfVertices(); src++) {
+			long slowest = 0;
+			for (int hops : new int[] { 0, 1, 2, Integer.MAX_VALUE }) {
+				CriticalPath criticalPath = new CriticalPath(graph, src, hops);
+				for (int dst = 0; dst < graph.getNumOfVertices(); dst++) {
+					Trace trace = criticalPath.traceTo(dst);
+					if (dst == src) {
+						assertEquals(error + src, 0, criticalPath.latencyTo(dst));
+						assertEquals(error + src, 0, trace.hops());
+						continue;
+					}
+					List<Trace> expected = traceProcessor.findSlowestTraces(graph,
+							TopTracesInput.builder().src(src).dst(dst).k(1).build());
+					if (hops == Integer.MAX_VALUE) {
+						assertEquals(error + src + "," + dst, expected.isEmpty(), trace == null);
+					}
+					if (trace == null) {
+						continue;
+					}
+					assertTrace(graph, trace.vertices(), src, dst);
+					assertEquals(error + src + "," + dst, trace.latency(), criticalPath.latencyTo(dst));
+					assertEquals(error + src + "," + dst, trace.hops() + 1,
+							Arrays.stream(trace.vertices()).distinct().count());
+					for (int j = 0; j < trace.hops(); j++) {
+						assertEquals(graph.getWeight(trace.vertex(j), trace.vertex(j + 1)), trace.latency(j));
+					}
+					assertTrue(error + src + "," + dst, trace.latency() <= expected.get(0).latency());
+					if (hops == Integer.MAX_VALUE) {
+						assertEquals(error + src + "," + dst, expected.get(0).latency(), trace.latency());
+						slowest = Math.max(slowest, trace.latency());
+					}
+				}
+			}
+			Trace critical = traceProcessor.findCriticalPath(graph,
+					CriticalPathInput.builder().src(src).hops(Integer.MAX_VALUE).build());
+			assertEquals(error + src, slowest, critical.latency());
+			assertEquals(error + src, src, critical.vertex(0));
+		}
+	}
+
+	public void testFindShortestCycles() {
+		int i = ZERO;
+		for (List<String> solution : solutions) {
+			TraceProcessor traceProcessor = new TraceProcessor();
+			Graph graph = new Graph(tracingInputs[i].getGraphInput());
+			int n = graph.getNumOfVertices();
+			long[] actual = traceProcessor.findShortestCycles(graph);
+			int[] allPairs = MinPlus.allPairsWithinHops(graph, n);
+			for (int v = 0; v < n; v++) {
+				long expected = traceProcessor.findShortestPath(graph,
+						ShortestPathInput.builder().src(v).dst(v).build());
+				assertEquals("Error in " + filesProblems.get(i).getName() + " : " + v, expected, actual[v]);
+				assertEquals(expected == 0 ? Integer.MAX_VALUE : expected, allPairs[v * n + v]);
+			}
+			i++;
+		}
+
+		TraceProcessor traceProcessor = new TraceProcessor();
+		Graph graph = new Graph(BenchmarkGraphs.random(300, 0.01, 9, 11));
+		long[] actual = traceProcessor.findShortestCycles(graph);
+		for (int v = 0; v < graph.getNumOfVertices(); v++) {
+			assertEquals(traceProcessor.findShortestPath(graph, ShortestPathInput.builder().src(v).dst(v).build()),
+					actual[v]);
+		}
+
+		int n = 100000;
+		List<Edge> pairs = new ArrayList<>();
+		for (int v = 0; v < n; v += 2) {
+			pairs.add(new Edge(v, v + 1, 1 + v % 5));
+			pairs.add(new Edge(v + 1, v, 2));
+			if (v + 2 < n) {
+				pairs.add(new Edge(v + 1, v + 2, 1));
+			}
+		}
+		long[] cycles = traceProcessor.findShortestCycles(new Graph(GraphInput.builder().edges(pairs).build()));
+		for (int v = 0; v < n; v++) {
+			assertEquals(3 + (v - v % 2) % 5, cycles[v]);
+		}
+	}
+
+	public void testFindShortestPathWithinHops() {
+		int i = ZERO;
+		for (List<String> solution : solutions) {
+			TraceProcessor traceProcessor = new TraceProcessor();
+			Graph graph = new Graph(tracingInputs[i].getGraphInput());
+			int n = graph.getNumOfVertices();
+			for (int hops = 0; hops <= n + 1; hops++) {
+				int[] allPairs = MinPlus.allPairsWithinHops(graph, hops);
+				for (int src = 0; src < n; src++) {
+					for (int dst = 0; dst < n; dst++) {
+						UptoHopsInput uptoHopsInput = UptoHopsInput.builder().src(src).dst(dst).hops(hops).build();
+						long expected = traceProcessor
+								.enumerateUptoHops(graph, uptoHopsInput, TraceSpliterator.Order.BREADTH_FIRST)
+								.mapToLong(trace -> latency(graph, trace)).min().orElse(0);
+						HopsShortestPathInput input = HopsShortestPathInput.builder().src(src).dst(dst).hops(hops)
+								.build();
+						assertEquals("Error in " + filesProblems.get(i).getName() + " : " + src + "," + dst + "," + hops,
+								expected, traceProcessor.findShortestPathWithinHops(graph, input));
+						assertEquals(expected == 0 ? Integer.MAX_VALUE : expected, allPairs[src * n + dst]);
+					}
+				}
+			}
+			i++;
+		}
+	}
+
+	public void testPathCountEstimator() {
+		int i = ZERO;
+		SamplingBudget budget = SamplingBudget.builder().confidence(0.999).maxSamples(20000).seed(7).build();
+		for (List<String> solution : solutions) {
+			Graph graph = new Graph(tracingInputs[i].getGraphInput());
+			PathCountEstimator estimator = new PathCountEstimator(graph);
+			String error = "Error in " + filesProblems.get(i).getName() + " : ";
+			assertEstimate(error, Long.parseLong(solution.get(UPTO_HOPS_INPUT_INDEX)),
+					estimator.uptoHops(tracingInputs[i].getUptoHopsInput(), budget));
+			assertEstimate(error, Long.parseLong(solution.get(EXACT_HOPS_INPUT_INDEX)),
+					estimator.exactHops(tracingInputs[i].getExactHopsInput(), budget));
+			assertEstimate(error, Long.parseLong(solution.get(UPTO_LATENCY_INPUT_INDEX)),
+					estimator.uptoLatency(tracingInputs[i].getUptoLatencyInput(), budget));
+			i++;
+		}
+
+		Graph graph = new Graph(BenchmarkGraphs.random(12, 0.5, 9, 7));
+		UptoHopsInput input = UptoHopsInput.builder().src(0).dst(5).hops(60).build();
+		double[] counts = new double[graph.getNumOfVertices()];
+		double exact = 0;
+		counts[0] = 1;
+		for (int hops = 1; hops <= 60; hops++) {
+			double[] next = new double[counts.length];
+			for (int v = 0; v < counts.length; v++) {
+				for (Edge e : graph.adj(v)) {
+					next[e.to()] += counts[v];
+				}
+			}
+			counts = next;
+			exact += counts[5];
+		}
+		assertEquals(Long.MAX_VALUE, new TraceProcessor().findUptoHops(graph, input));
+		SamplingBudget bounded = SamplingBudget.builder().relativeError(0.02).maxSamples(100000).seed(7).build();
+		PathCountEstimate estimate = new TraceProcessor().estimateUptoHops(graph, input, bounded);
+		assertEstimate("Error in random graph : ", exact, estimate);
+		assertTrue(estimate.toString(), estimate.getRelativeError() <= 0.02);
+		estimate = new PathCountEstimator(graph, 8 * graph.getNumOfVertices()).uptoHops(input, bounded);
+		assertEstimate("Error in random graph beyond the horizon : ", exact, estimate);
+		assertTrue(estimate.toString(), estimate.getRelativeError() <= 0.02);
+		estimate = new PathCountEstimator(graph).uptoHops(input,
+				SamplingBudget.builder().relativeError(0.02).timeMillis(1).seed(7).build());
+		assertTrue(estimate.toString(), estimate.getSamples() > 0 && estimate.getEstimate() > 0);
+
+		try {
+			new PathCountEstimator(graph).uptoHops(input, SamplingBudget.builder().relativeError(0.1).build());
+			fail("unbounded sampling budget accepted");
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage().contains("budget"));
+		}
+	}
+
+	private void assertEstimate(String error, double expected, PathCountEstimate estimate) {
+		if (expected == 0) {
+			assertEquals(error + estimate, 0.0, estimate.getEstimate());
+		} else {
+			assertTrue(error + expected + " outside " + estimate,
+					estimate.getLowerBound() * (1 - 1e-9) <= expected
+							&& expected <= estimate.getUpperBound() * (1 + 1e-9));
+		}
+	}
+
+	public void testFindImpact() {
+		int i = ZERO;
+		for (List<String> solution : solutions) {
+			Graph graph = new Graph(tracingInputs[i].getGraphInput());
+			int[] services = IntStream.range(0, 300).map(k -> k % graph.getNumOfVertices()).toArray();
+			assertImpact("Error in " + filesProblems.get(i).getName() + " : ", graph, services);
+			i++;
+		}
+		Graph graph = new Graph(BenchmarkGraphs.random(300, 0.01, 9, 11));
+		assertImpact("Error in random graph : ", graph, IntStream.range(0, 300).toArray());
+	}
+
+	private void assertImpact(String error, Graph graph, int[] services) {
+		TraceProcessor traceProcessor = new TraceProcessor();
+		for (int hops : new int[] { 0, 1, 2, 3, Integer.MAX_VALUE }) {
+			ImpactAnalysis impact = traceProcessor.findImpact(graph,
+					ImpactInput.builder().services(services).hops(hops).build());
+			int[] counts = impact.impactCounts();
+			for (int k = 0; k < services.length; k++) {
+				int[] bounds = SearchBounds.hopBounds(graph.getBackend(), graph.toInternal(services[k]));
+				int count = 0;
+				for (int v = 0; v < graph.getNumOfVertices(); v++) {
+					int bound = bounds[graph.toInternal(v)];
+					boolean expected = bound != Integer.MAX_VALUE && bound <= hops;
+					assertEquals(error + v + "," + services[k] + "," + hops, expected, impact.reaches(v, k));
+					assertEquals(error + v + "," + services[k] + "," + hops, expected ? bound : 0,
+							impact.hops(v, k));
+					if (hops == Integer.MAX_VALUE) {
+						assertEquals(error + v + "," + services[k], graph.hasPath(v, services[k]), expected);
+					}
+					count += expected ? 1 : 0;
+				}
+				assertEquals(error + services[k] + "," + hops, count, counts[k]);
+				assertEquals(error + services[k] + "," + hops, count, impact.impacted(k).length);
+			}
+		}
+	}
+
+	public void testDiffSnapshots() {
+		GraphInput before = BenchmarkGraphs.random(40, 0.08, 9, 3);
+		assertTrue(new TraceProcessor().diffSnapshots(new Graph(before), new Graph(before)).changedEdges().isEmpty());
+		for (double changes : new double[] { 0.02, 0.5 }) {
+			Random random = new Random(17);
+			List<Edge> edges = new ArrayList<>();
+			for (Edge e : before.getEdges()) {
+				double r = random.nextDouble();
+				if (r >= changes) {
+					edges.add(e);
+				} else if (r >= changes / 3) {
+					edges.add(new Edge(e.from(), e.to(), 1 + random.nextInt(9)));
+				}
+			}
+			edges.add(new Edge(0, 20, 1));
+			assertDiff("Error in " + changes + " changes : ", new Graph(before),
+					new Graph(GraphInput.builder().edges(edges).build()));
+		}
+	}
+
+	private void assertDiff(String error, Graph before, Graph after) {
+		TraceProcessor traceProcessor = new TraceProcessor();
+		SnapshotDiff diff = traceProcessor.diffSnapshots(before, after);
+		int changed = 0;
+		for (int v = 0; v < before.getNumOfVertices(); v++) {
+			for (int w = 0; w < before.getNumOfVertices(); w++) {
+				changed += fastestEdge(before, v, w) != fastestEdge(after, v, w) ? 1 : 0;
+			}
+		}
+		assertEquals(error, changed, diff.changedEdges().size());
+		for (EdgeChange change : diff.changedEdges()) {
+			assertEquals(error, fastestEdge(before, change.getFrom(), change.getTo()), change.getBefore());
+			assertEquals(error, fastestEdge(after, change.getFrom(), change.getTo()), change.getAfter());
+		}
+
+		List<LatencyRegression> expected = new ArrayList<>();
+		for (int src = 0; src < before.getNumOfVertices(); src++) {
+			for (int dst = 0; dst < before.getNumOfVertices(); dst++) {
+				ShortestPathInput input = ShortestPathInput.builder().src(src).dst(dst).build();
+				OptionalLong latencyBefore = traceProcessor.findShortestPathIfExists(before, input);
+				OptionalLong latencyAfter = traceProcessor.findShortestPathIfExists(after, input);
+				if (src != dst && latencyBefore.isPresent() && (!latencyAfter.isPresent()
+						|| latencyAfter.getAsLong() > latencyBefore.getAsLong())) {
+					expected.add(LatencyRegression.builder().src(src).dst(dst).before(latencyBefore.getAsLong())
+							.after(latencyAfter.orElse(0)).build());
+				}
+			}
+		}
+		List<LatencyRegression> actual = diff.regressions();
+		assertFalse(error, expected.isEmpty());
+		assertEquals(error, expected.size(), actual.size());
+		assertTrue(error, actual.containsAll(expected));
+		for (int j = 1; j < actual.size(); j++) {
+			assertTrue(error, actual.get(j - 1).getDelta() >= actual.get(j).getDelta());
+		}
+		int[] affected = diff.affectedSources();
+		for (LatencyRegression regression : actual) {
+			assertTrue(error, Arrays.binarySearch(affected, regression.getSrc()) >= 0);
+		}
+	}
+
+	private static int fastestEdge(Graph graph, int v, int w) {
+		int weight = EdgeChange.ABSENT;
+		for (Edge e : v < graph.getNumOfVertices() ? graph.adj(v) : Collections.<Edge>emptyList()) {
+			if (e.to() == w && (weight == EdgeChange.ABSENT || e.weight() < weight)) {
+				weight = e.weight();
+			}
+		}
+		return weight;
+	}
+
+	public void testDiffSnapshotsWithZeroLatency() {
+		GraphInput before = GraphInput.builder()
+				.edges(Arrays.asList(new Edge(0, 1, 0), new Edge(1, 2, 1), new Edge(2, 3, 5))).build();
+		GraphInput after = GraphInput.builder()
+				.edges(Arrays.asList(new Edge(0, 1, 5), new Edge(1, 2, 1), new Edge(2, 3, 0))).build();
+		SnapshotDiff diff = new TraceProcessor().diffSnapshots(new Graph(before), new Graph(after));
+		assertEquals(Arrays.asList(EdgeChange.builder().from(0).to(1).before(0).after(5).build(),
+				EdgeChange.builder().from(2).to(3).before(5).after(0).build()), diff.changedEdges());
+		assertTrue(diff.changedEdges().get(0).isRegression());
+		assertFalse(diff.changedEdges().get(1).isRegression());
+		assertTrue(Arrays.equals(new int[] { 0 }, diff.affectedSources()));
+		assertEquals(Arrays.asList(LatencyRegression.builder().src(0).dst(1).before(0).after(5).build(),
+				LatencyRegression.builder().src(0).dst(2).before(1).after(6).build()), diff.regressions());
+		assertTrue(new TraceProcessor().diffSnapshots(new Graph(after), new Graph(before)).regressions().stream()
+				.noneMatch(LatencyRegression::isLost));
+	}
+
+	public void testQueryPlanner() {
+		int i = ZERO;
+		for (List<String> solution : solutions) {
+			Graph graph = new Graph(tracingInputs[i].getGraphInput());
+			String error = "Error in " + filesProblems.get(i).getName() + " : ";
+			for (QueryPlan.Strategy strategy : QueryPlan.Strategy.values()) {
+				QueryPlanner planner = new QueryPlanner(graph, strategy);
+				assertEquals(error + strategy, Long.parseLong(solution.get(UPTO_HOPS_INPUT_INDEX)),
+						planner.uptoHops(tracingInputs[i].getUptoHopsInput()).getResult());
+				assertEquals(error + strategy, Long.parseLong(solution.get(EXACT_HOPS_INPUT_INDEX)),
+						planner.exactHops(tracingInputs[i].getExactHopsInput()).getResult());
+				if (strategy != QueryPlan.Strategy.MATRIX_POWER) {
+					assertEquals(error + strategy, Long.parseLong(solution.get(UPTO_LATENCY_INPUT_INDEX)),
+							planner.uptoLatency(tracingInputs[i].getUptoLatencyInput()).getResult());
+				}
+			}
+			try {
+				new QueryPlanner(graph, QueryPlan.Strategy.MATRIX_POWER)
+						.uptoLatency(tracingInputs[i].getUptoLatencyInput());
+				fail(error + "matrix power answered a latency query");
+			} catch (IllegalArgumentException e) {
+				// expected
+			}
+			i++;
+		}
+
+		Graph graph = new Graph(BenchmarkGraphs.random(12, 0.25, 9, 7));
+		for (int limit = 0; limit <= 8; limit++) {
+			for (int src = 0; src < 12; src += 5) {
+				for (int dst = 0; dst < 12; dst += 3) {
+					UptoHopsInput uptoHopsInput = UptoHopsInput.builder().src(src).dst(dst).hops(limit).build();
+					ExactHopsInput exactHopsInput = ExactHopsInput.builder().src(src).dst(dst).hops(limit).build();
+					UptoLatencyInput uptoLatencyInput = UptoLatencyInput.builder().src(src).dst(dst)
+							.latency(limit * 4).build();
+					QueryPlan uptoHops = new QueryPlanner(graph).uptoHops(uptoHopsInput);
+					QueryPlan exactHops = new QueryPlanner(graph).exactHops(exactHopsInput);
+					QueryPlan uptoLatency = new QueryPlanner(graph).uptoLatency(uptoLatencyInput);
+					for (QueryPlan plan : Arrays.asList(uptoHops, exactHops, uptoLatency)) {
+						assertNotSame(QueryPlan.Strategy.BFS_ENUMERATION, plan.getStrategy());
+						assertEquals(plan.getEstimates().entrySet().stream()
+								.filter(e -> e.getKey() != QueryPlan.Strategy.BFS_ENUMERATION)
+								.mapToDouble(Map.Entry::getValue).min().getAsDouble(), plan.getEstimatedCost());
+						assertTrue(plan.explain().startsWith(plan.getQuery() + " using " + plan.getStrategy()));
+					}
+					for (QueryPlan.Strategy strategy : QueryPlan.Strategy.values()) {
+						QueryPlanner planner = new QueryPlanner(graph, strategy);
+						String error = strategy + " " + src + "," + dst + "," + limit;
+						assertEquals(error, uptoHops.getResult(), planner.uptoHops(uptoHopsInput).getResult());
+						assertEquals(error, exactHops.getResult(), planner.exactHops(exactHopsInput).getResult());
+						if (strategy != QueryPlan.Strategy.MATRIX_POWER) {
+							assertEquals(error, uptoLatency.getResult(),
+									planner.uptoLatency(uptoLatencyInput).getResult());
+						}
+					}
+				}
+			}
+		}
+	}
+
+	public void testMatrixPowerTooLarge() {
+		Graph graph = new Graph(GraphInput.builder()
+				.edges(IntStream.range(0, 46340).mapToObj(v -> new Edge(v, v + 1, 1)).collect(Collectors.toList()))
+				.build());
+		ExactHopsInput exactHopsInput = ExactHopsInput.builder().src(0).dst(2).hops(2).build();
+		assertEquals(1, new QueryPlanner(graph).exactHops(exactHopsInput).getResult());
+		try {
+			new QueryPlanner(graph, QueryPlan.Strategy.MATRIX_POWER).exactHops(exactHopsInput);
+			fail("matrix power answered a query on 46341 vertices");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	public void testSearchBoundsPruning() {
+		int i = ZERO;
+		for (List<String> solution : solutions) {
+			Graph graph = new Graph(tracingInputs[i].getGraphInput());
+			String error = "Error in " + filesProblems.get(i).getName() + " : ";
+			UptoHopsInput uptoHops = tracingInputs[i].getUptoHopsInput();
+			ExactHopsInput exactHops = tracingInputs[i].getExactHopsInput();
+			UptoLatencyInput uptoLatency = tracingInputs[i].getUptoLatencyInput();
+			assertPruning(error, graph, QueryPlan.Query.UPTO_HOPS, uptoHops.getSrc(), uptoHops.getDst(),
+					uptoHops.getHops(), Long.parseLong(solution.get(UPTO_HOPS_INPUT_INDEX)));
+			assertPruning(error, graph, QueryPlan.Query.EXACT_HOPS, exactHops.getSrc(), exactHops.getDst(),
+					exactHops.getHops(), Long.parseLong(solution.get(EXACT_HOPS_INPUT_INDEX)));
+			assertPruning(error, graph, QueryPlan.Query.UPTO_LATENCY, uptoLatency.getSrc(), uptoLatency.getDst(),
+					uptoLatency.getLatency(), Long.parseLong(solution.get(UPTO_LATENCY_INPUT_INDEX)));
+			i++;
+		}
+
+		Graph graph = new Graph(BenchmarkGraphs.random(400, 0.01, 20, 42));
+		long reachable = 0, bounded = 0;
+		for (QueryPlan.Query query : QueryPlan.Query.values()) {
+			int limit = query == QueryPlan.Query.UPTO_LATENCY ? 60 : 6;
+			long expected = SearchBoundsBenchmark.find(graph, query, 0, 200, limit);
+			reachable += SearchBoundsBenchmark.hasPathSearch(graph, query, 0, 200, limit)[1];
+			bounded += assertPruning("Error in random graph : ", graph, query, 0, 200, limit, expected);
+		}
+		assertTrue(reachable + " expanded paths against " + bounded, bounded * 40 < reachable);
+	}
+
+	private static long assertPruning(String error, Graph graph, QueryPlan.Query query, int src, int dst, int limit,
+			long expected) {
+		long[] reachable = SearchBoundsBenchmark.hasPathSearch(graph, query, src, dst, limit);
+		long[] bounded = SearchBoundsBenchmark.boundedSearch(graph, query, src, dst, limit);
+		assertEquals(error + query, expected, reachable[0]);
+		assertEquals(error + query, expected, bounded[0]);
+		assertTrue(error + query, bounded[1] <= reachable[1]);
+		return bounded[1];
+	}
+
+	public void testPartitionedGraph() throws IOException {
+		int i = ZERO;
+		for (List<String> solution : solutions) {
+			GraphInput graphInput = tracingInputs[i].getGraphInput();
+			Graph graph = new Graph(graphInput);
+			int n = graph.getNumOfVertices();
+			int[] owner = new int[n];
+			for (int v = 0; v < n; v++) {
+				owner[v] = v < n / 2 ? 0 : 1;
+			}
+			for (Partitioning partitioning : Arrays.asList(new Partitioning(owner, 2),
+					Partitioning.hashed(graphInput, 3), Partitioning.hashed(graphInput, 1))) {
+				List<PartitionWorker> workers = new ArrayList<>();
+				List<InetSocketAddress> addresses = new ArrayList<>();
+				for (int p = 0; p < partitioning.numOfPartitions(); p++) {
+					workers.add(new PartitionWorker(partitioning.partition(graphInput, p), 0));
+					addresses.add(workers.get(p).getAddress());
+				}
+				try (PartitionCoordinator coordinator = new PartitionCoordinator(partitioning, addresses)) {
+					String error = "Error in " + filesProblems.get(i).getName() + " : Test Case - ";
+					assertEquals(error + (UPTO_HOPS_INPUT_INDEX + 1), Long.parseLong(solution.get(UPTO_HOPS_INPUT_INDEX)),
+							coordinator.findUptoHops(tracingInputs[i].getUptoHopsInput()));
+					assertEquals(error + (EXACT_HOPS_INPUT_INDEX + 1),
+							Long.parseLong(solution.get(EXACT_HOPS_INPUT_INDEX)),
+							coordinator.findExactHops(tracingInputs[i].getExactHopsInput()));
+					TraceProcessor traceProcessor = new TraceProcessor();
+					for (int src = 0; src <= n; src++) {
+						for (int dst = 0; dst <= n; dst++) {
+							ShortestPathInput input = ShortestPathInput.builder().src(src).dst(dst).build();
+							assertEquals(error + src + "," + dst, traceProcessor.findShortestPath(graph, input),
+									coordinator.findShortestPath(input));
+							assertEquals(src < n && dst < n && graph.hasPath(src, dst), coordinator.hasPath(src, dst));
+						}
+						UptoHopsInput uptoHopsInput = UptoHopsInput.builder().src(src).dst(n - 1 - src % n).hops(6)
+								.build();
+						assertEquals(traceProcessor.findUptoHops(graph, uptoHopsInput),
+								coordinator.findUptoHops(uptoHopsInput));
+					}
+				} finally {
+					for (PartitionWorker worker : workers) {
+						worker.close();
+					}
+				}
+			}
+			i++;
+		}
+	}
+
+	public void testPartitionedSaturatedCount() throws IOException {
+		GraphInput graphInput = BenchmarkGraphs.random(12, 0.5, 9, 7);
+		Graph graph = new Graph(graphInput);
+		TraceProcessor traceProcessor = new TraceProcessor();
+		for (int numOfPartitions : new int[] { 1, 3 }) {
+			Partitioning partitioning = Partitioning.hashed(graphInput, numOfPartitions);
+			List<PartitionWorker> workers = new ArrayList<>();
+			List<InetSocketAddress> addresses = new ArrayList<>();
+			for (int p = 0; p < numOfPartitions; p++) {
+				workers.add(new PartitionWorker(partitioning.partition(graphInput, p), 0));
+				addresses.add(workers.get(p).getAddress());
+			}
+			try (PartitionCoordinator coordinator = new PartitionCoordinator(partitioning, addresses)) {
+				ExactHopsInput exactHopsInput = ExactHopsInput.builder().src(0).dst(5).hops(200).build();
+				assertEquals(Long.MAX_VALUE, traceProcessor.findExactHops(graph, exactHopsInput));
+				assertEquals(numOfPartitions + " partitions", Long.MAX_VALUE,
+						coordinator.findExactHops(exactHopsInput));
+				UptoHopsInput uptoHopsInput = UptoHopsInput.builder().src(0).dst(5).hops(200).build();
+				assertEquals(traceProcessor.findUptoHops(graph, uptoHopsInput),
+						coordinator.findUptoHops(uptoHopsInput));
+			} finally {
+				for (PartitionWorker worker : workers) {
+					worker.close();
+				}
+			}
+		}
+	}
+
+	public void testPartitionWorkerErrors() throws IOException {
+		GraphInput graphInput = tracingInputs[ZERO].getGraphInput();
+		try (PartitionWorker worker = new PartitionWorker(Partitioning.hashed(graphInput, 1).partition(graphInput, 0),
+				0); Socket socket = new Socket(worker.getAddress().getAddress(), worker.getAddress().getPort())) {
+			DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+			DataInputStream in = new DataInputStream(socket.getInputStream());
+			out.writeByte(PartitionWorker.RELAX);
+			out.writeLong(7);
+			PartitionWorker.writeValues(out, Collections.singletonMap(0, 1L));
+			assertEquals(PartitionWorker.ERROR, in.readByte());
+			assertTrue(in.readUTF().contains("Unknown query 7"));
+
+			out.writeByte(PartitionWorker.OPEN_COUNT);
+			out.writeLong(7);
+			out.writeInt(0);
+			out.writeInt(1);
+			assertEquals(PartitionWorker.OK, in.readByte());
+			in.readLong();
+			in.readLong();
+			PartitionWorker.readValues(in);
+
+			out.writeByte(9);
+			assertEquals(PartitionWorker.ERROR, in.readByte());
+			assertEquals("Unknown request 9", in.readUTF());
+			assertEquals(-1, in.read());
+		}
+	}
+
+	public void testPartitionCoordinatorClosesFailedQuery() throws IOException, InterruptedException {
+		GraphInput graphInput = tracingInputs[ZERO].getGraphInput();
+		Graph graph = new Graph(graphInput);
+		int[] owner = new int[graph.getNumOfVertices()];
+		Arrays.fill(owner, 1);
+		Partitioning partitioning = new Partitioning(owner, 2);
+		List<Byte> requests = Collections.synchronizedList(new ArrayList<>());
+		try (ServerSocket failing = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+				PartitionWorker worker = new PartitionWorker(partitioning.partition(graphInput, 1), 0)) {
+			Thread thread = new Thread(() -> serveEmptyPartition(failing, requests));
+			thread.setDaemon(true);
+			thread.start();
+			try (PartitionCoordinator coordinator = new PartitionCoordinator(partitioning,
+					Arrays.asList((InetSocketAddress) failing.getLocalSocketAddress(), worker.getAddress()))) {
+				ShortestPathInput input = ShortestPathInput.builder().src(0).dst(2).build();
+				try {
+					coordinator.findShortestPath(input);
+					fail("Expected the query to fail");
+				} catch (RuntimeException e) {
+					assertEquals("Partition 0 failed: java.lang.IllegalStateException: first request",
+							e.getCause().getMessage());
+				}
+				assertEquals(Arrays.asList(PartitionWorker.OPEN_SEARCH, PartitionWorker.CLOSE), requests);
+				assertEquals(new TraceProcessor().findShortestPath(graph, input), coordinator.findShortestPath(input));
+				UptoHopsInput uptoHopsInput = tracingInputs[ZERO].getUptoHopsInput();
+				assertEquals(new TraceProcessor().findUptoHops(graph, uptoHopsInput),
+						coordinator.findUptoHops(uptoHopsInput));
+			}
+			thread.join(1000);
+		}
+	}
+
+	private static void serveEmptyPartition(ServerSocket serverSocket, List<Byte> requests) {
+		try (Socket socket = serverSocket.accept();
+				DataInputStream in = new DataInputStream(socket.getInputStream());
+				DataOutputStream out = new DataOutputStream(socket.getOutputStream())) {
+			while (true) {
+				byte op = in.readByte();
+				in.readLong();
+				if (op == PartitionWorker.OPEN_SEARCH || op == PartitionWorker.OPEN_COUNT) {
+					in.readInt();
+					in.readInt();
+				}
+				if (op == PartitionWorker.OPEN_SEARCH) {
+					in.readBoolean();
+				}
+				if (op == PartitionWorker.RELAX || op == PartitionWorker.STEP) {
+					PartitionWorker.readValues(in);
+				}
+				requests.add(op);
+				if (requests.size() == 1) {
+					out.writeByte(PartitionWorker.ERROR);
+					out.writeUTF("java.lang.IllegalStateException: first request");
+					continue;
+				}
+				out.writeByte(PartitionWorker.OK);
+				out.writeLong(op == PartitionWorker.OPEN_COUNT || op == PartitionWorker.STEP ? 0 : Long.MAX_VALUE);
+				out.writeLong(0);
+				PartitionWorker.writeValues(out, Collections.emptyMap());
+			}
+		} catch (IOException e) {
+			// the coordinator closed the connection
+		}
+	}
+
+	public void testZeroLatencyTrace() throws IOException {
+		GraphInput graphInput = GraphInput.builder()
+				.edges(Arrays.asList(new Edge(0, 1, 0), new Edge(1, 2, 0), new Edge(2, 3, 4))).build();
+		TraceProcessor traceProcessor = new TraceProcessor();
+		for (GraphBackend.Type type : GraphBackend.Type.values()) {
+			Graph graph = Graph.builder().graphInput(graphInput).backend(type).build();
+			assertEquals(type.name(), OptionalLong.of(0), traceProcessor.findAverageLatencyIfExists(graph,
+					AverageLatencyInput.builder().vertices(Arrays.asList(0, 1, 2)).build()));
+			assertEquals(type.name(), OptionalLong.empty(), traceProcessor.findAverageLatencyIfExists(graph,
+					AverageLatencyInput.builder().vertices(Arrays.asList(1, 0)).build()));
+			assertEquals(type.name(), OptionalLong.of(0),
+					traceProcessor.findShortestPathIfExists(graph, ShortestPathInput.builder().src(0).dst(2).build()));
+			assertEquals(type.name(), OptionalLong.empty(),
+					traceProcessor.findShortestPathIfExists(graph, ShortestPathInput.builder().src(3).dst(0).build()));
+			BulkLatencyResult bulk = traceProcessor.findAverageLatencies(graph, BulkAverageLatencyInput.builder()
+					.vertices(new int[] { 0, 1, 2, 1, 0 }).offsets(new int[] { 0, 3, 5 }).build());
+			assertTrue(type.name(), Arrays.equals(new int[] { 1 }, bulk.getInvalidTraces()));
+		}
+
+		Graph graph = new Graph(graphInput);
+		List<QueryResult> results = new ArrayList<>();
+		results.add(QueryResult.of(1, QueryResult.Type.SHORTEST_PATH,
+				traceProcessor.findShortestPathIfExists(graph, ShortestPathInput.builder().src(0).dst(1).build()), 0));
+		results.add(QueryResult.of(2, QueryResult.Type.SHORTEST_PATH,
+				traceProcessor.findShortestPathIfExists(graph, ShortestPathInput.builder().src(1).dst(0).build()), 0));
+		assertEquals("0\nNO SUCH TRACE\n", write(ResultSink.Format.TEXT, results));
+
+		Partitioning partitioning = Partitioning.hashed(graphInput, 2);
+		List<PartitionWorker> workers = new ArrayList<>();
+		List<InetSocketAddress> addresses = new ArrayList<>();
+		for (int p = 0; p < partitioning.numOfPartitions(); p++) {
+			workers.add(new PartitionWorker(partitioning.partition(graphInput, p), 0));
+			addresses.add(workers.get(p).getAddress());
+		}
+		try (PartitionCoordinator coordinator = new PartitionCoordinator(partitioning, addresses)) {
+			assertEquals(OptionalLong.of(0),
+					coordinator.findShortestPathIfExists(ShortestPathInput.builder().src(0).dst(2).build()));
+			assertEquals(OptionalLong.empty(),
+					coordinator.findShortestPathIfExists(ShortestPathInput.builder().src(3).dst(0).build()));
+		} finally {
+			for (PartitionWorker worker : workers) {
+				worker.close();
+			}
+		}
+	}
+
+	public void testConsoleLeftOpen() throws IOException {
+		PrintStream console = System.out;
+		boolean[] closed = new boolean[1];
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream() {
+			@Override
+			public void close() {
+				closed[0] = true;
+			}
+		};
+		try {
+			System.setOut(new PrintStream(bytes, false, "UTF-8"));
+			Main.main(new String[] { filesProblems.get(ZERO).getPath() });
+			assertFalse(closed[0]);
+			assertFalse(System.out.checkError());
+			System.out.println("after");
+		} finally {
+			System.setOut(console);
+		}
+		String[] lines = bytes.toString("UTF-8").split("\n");
+		assertEquals(solutions.get(ZERO).size() + 1, lines.length);
+		assertEquals("after", lines[lines.length - 1]);
+	}
+
+	public void testResultSinks() throws IOException, InterruptedException {
+		List<QueryResult> results = new ArrayList<>();
+		results.add(QueryResult.of(1, QueryResult.Type.AVERAGE_LATENCY, 9, 1200));
+		results.add(QueryResult.of(2, QueryResult.Type.AVERAGE_LATENCY, OptionalLong.empty(), 300));
+		results.add(QueryResult.of(3, QueryResult.Type.UPTO_HOPS, 0, 4500000000L));
+		results.add(QueryResult.of(4, QueryResult.Type.SHORTEST_PATH, Long.MAX_VALUE, 0));
+
+		assertEquals("9\nNO SUCH TRACE\n0\n" + Long.MAX_VALUE + "\n", write(ResultSink.Format.TEXT, results));
+		String[] lines = write(ResultSink.Format.JSON_LINES, results).split("\n");
+		assertEquals(results.size(), lines.length);
+		assertEquals("{\"id\":1,\"type\":\"AVERAGE_LATENCY\",\"result\":9,\"elapsedNanos\":1200}", lines[0]);
+		assertEquals("{\"id\":2,\"type\":\"AVERAGE_LATENCY\",\"result\":null,\"elapsedNanos\":300}", lines[1]);
+		assertEquals("{\"id\":3,\"type\":\"UPTO_HOPS\",\"result\":0,\"elapsedNanos\":4500000000}", lines[2]);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ResultSink sink = ResultSink.create(ResultSink.Format.BINARY, out)) {
+			for (QueryResult result : results) {
+				sink.write(result);
+			}
+		}
+		assertEquals(results, BinarySink.read(new ByteArrayInputStream(out.toByteArray())));
+
+		out = new ByteArrayOutputStream();
+		try (ResultSink sink = new AsyncSink(new BinarySink(out), 2)) {
+			IntStream.range(0, 4).parallel().forEach(t -> {
+				for (int k = 0; k < 1000; k++) {
+					try {
+						sink.write(QueryResult.of(t * 1000 + k, QueryResult.Type.EXACT_HOPS, k, k));
+					} catch (IOException e) {
+						throw new RuntimeException(e);
+					}
+				}
+			});
+		}
+		List<QueryResult> written = BinarySink.read(new ByteArrayInputStream(out.toByteArray()));
+		assertEquals(4000, written.size());
+		assertEquals(4000, written.stream().mapToLong(QueryResult::getId).distinct().count());
+
+		ResultSink failing = new AsyncSink(new ResultSink() {
+			@Override
+			public void write(QueryResult result) throws IOException {
+				throw new IOException("disk full");
+			}
+
+			@Override
+			public void close() {
+			}
+		}, 2);
+		failing.write(results.get(0));
+		try {
+			failing.close();
+			fail("closed a sink which failed");
+		} catch (IOException e) {
+			assertEquals("disk full", e.getMessage());
+		}
+
+		ResultSink broken = new AsyncSink(new BinarySink(new ByteArrayOutputStream()), 1);
+		int rejected = 0;
+		for (int k = 0; k < 100; k++) {
+			try {
+				broken.write(QueryResult.builder().id(k).build());
+			} catch (IOException e) {
+				rejected++;
+			}
+		}
+		assertTrue(rejected > 0);
+		try {
+			broken.close();
+			fail("closed a sink which failed");
+		} catch (IOException e) {
+			assertTrue(e.getCause() instanceof NullPointerException);
+		}
+
+		out = new ByteArrayOutputStream();
+		AsyncSink racing = new AsyncSink(new BinarySink(out), 4);
+		AtomicLongArray accepted = new AtomicLongArray(4);
+		Thread[] writers = new Thread[accepted.length()];
+		for (int t = 0; t < writers.length; t++) {
+			int index = t;
+			writers[t] = new Thread(() -> {
+				try {
+					for (long k = 0;; k++) {
+						racing.write(QueryResult.of(k, QueryResult.Type.UPTO_HOPS, k, 0));
+						accepted.incrementAndGet(index);
+					}
+				} catch (IOException e) {
+					// the sink was closed
+				}
+			});
+			writers[t].start();
+		}
+		while (accepted.get(0) < 1000) {
+			Thread.yield();
+		}
+		racing.close();
+		for (Thread writer : writers) {
+			writer.join();
+		}
+		long numOfWritten = BinarySink.read(new ByteArrayInputStream(out.toByteArray())).size();
+		assertEquals(IntStream.range(0, writers.length).mapToLong(accepted::get).sum(), numOfWritten);
+	}
+
+	private static String write(ResultSink.Format format, List<QueryResult> results) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ResultSink sink = ResultSink.create(format, out)) {
+			for (QueryResult result : results) {
+				sink.write(result);
+			}
+		}
+		return out.toString(StandardCharsets.UTF_8);
+	}
+
+	public void testBackends() {
+		int i = ZERO;
+		for (List<String> solution : solutions) {
+			for (GraphBackend.Type type : GraphBackend.Type.values()) {
+				Graph graph = Graph.builder().graphInput(tracingInputs[i].getGraphInput()).backend(type).build();
+				assertEquals(type, graph.getBackend().type());
+				assertSolution(graph, i, solution);
+			}
+			i++;
+		}
+	}
+
+	public void testVertexOrderings() {
+		int i = ZERO;
+		for (List<String> solution : solutions) {
+			for (VertexOrdering.Type ordering : VertexOrdering.Type.values()) {
+				for (GraphBackend.Type type : GraphBackend.Type.values()) {
+					Graph graph = Graph.builder().graphInput(tracingInputs[i].getGraphInput()).backend(type)
+							.ordering(ordering).build();
+					for (int v = 0; v < graph.getNumOfVertices(); v++) {
+						assertEquals(v, graph.toExternal(graph.toInternal(v)));
+					}
+					assertSolution(graph, i, solution);
+				}
+			}
+			i++;
+		}
+	}
+
+	public void testVertexOrderingsOnRandomGraph() {
+		TraceProcessor traceProcessor = new TraceProcessor();
+		GraphInput graphInput = BenchmarkGraphs.random(60, 0.06, 9, 5);
+		Graph expected = new Graph(graphInput);
+		int n = expected.getNumOfVertices();
+		SamplingBudget budget = SamplingBudget.builder().relativeError(0.01).maxSamples(1000).seed(7).build();
+		for (VertexOrdering.Type ordering : VertexOrdering.Type.values()) {
+			Graph graph = Graph.builder().graphInput(graphInput).backend(GraphBackend.Type.CSR).ordering(ordering)
+					.build();
+			PathCountEstimator estimator = new PathCountEstimator(graph);
+			for (int src = 0; src < n; src += 11) {
+				ShortestPath sp = new ShortestPath(graph, src);
+				ShortestPath expectedSp = new ShortestPath(expected, src);
+				for (int dst = 0; dst < n; dst++) {
+					String error = ordering + " : " + src + "," + dst;
+					assertEquals(error, expectedSp.distTo(dst), sp.distTo(dst));
+					int v = dst;
+					long latency = 0;
+					for (Edge e : sp.pathTo(dst)) {
+						assertEquals(error, v, e.to());
+						assertEquals(error, graph.getWeight(e.from(), e.to()), e.weight());
+						v = e.from();
+						latency += e.weight();
+					}
+					assertEquals(error, sp.distTo(dst) == Integer.MAX_VALUE ? dst : src, v);
+					assertEquals(error, sp.distTo(dst) == Integer.MAX_VALUE ? 0 : sp.distTo(dst), latency);
+				}
+				for (int dst = 0; dst < n; dst += 3) {
+					String error = ordering + " : " + src + "," + dst;
+					UptoHopsInput uptoHopsInput = UptoHopsInput.builder().src(src).dst(dst).hops(3).build();
+					long count = traceProcessor.findUptoHops(expected, uptoHopsInput);
+					for (QueryPlan.Strategy strategy : QueryPlan.Strategy.values()) {
+						assertEquals(error + " " + strategy, count,
+								new QueryPlanner(graph, strategy).uptoHops(uptoHopsInput).getResult());
+					}
+					UptoLatencyInput uptoLatencyInput = UptoLatencyInput.builder().src(src).dst(dst).latency(20)
+							.build();
+					assertEquals(error, traceProcessor.findUptoLatency(expected, uptoLatencyInput),
+							new QueryPlanner(graph, QueryPlan.Strategy.BOUNDED_SEARCH).uptoLatency(uptoLatencyInput)
+									.getResult());
+					assertEquals(error, count, Math.round(estimator.uptoHops(uptoHopsInput, budget).getEstimate()));
+					assertEquals(error, toStrings(traceProcessor.enumerateUptoHops(expected, uptoHopsInput,
+							TraceSpliterator.Order.BREADTH_FIRST)),
+							toStrings(traceProcessor.enumerateUptoHops(graph, uptoHopsInput,
+									TraceSpliterator.Order.BREADTH_FIRST)));
+					TopTracesInput topTracesInput = TopTracesInput.builder().src(src).dst(dst).k(3).build();
+					assertEquals(error, latencies(traceProcessor.findFastestTraces(expected, topTracesInput)),
+							latencies(traceProcessor.findFastestTraces(graph, topTracesInput)));
+					HopsShortestPathInput hopsInput = HopsShortestPathInput.builder().src(src).dst(dst).hops(4).build();
+					assertEquals(error, traceProcessor.findShortestPathWithinHops(expected, hopsInput),
+							traceProcessor.findShortestPathWithinHops(graph, hopsInput));
+				}
+				CriticalPathInput criticalPathInput = CriticalPathInput.builder().src(src).hops(3).build();
+				assertEquals(ordering + " : " + src,
+						traceProcessor.findCriticalPath(expected, criticalPathInput).latency(),
+						traceProcessor.findCriticalPath(graph, criticalPathInput).latency());
+			}
+			GraphInput smallInput = BenchmarkGraphs.random(12, 0.2, 9, 5);
+			Graph small = Graph.builder().graphInput(smallInput).backend(GraphBackend.Type.CSR).ordering(ordering)
+					.build();
+			for (int src = 0; src < 12; src++) {
+				for (int dst = 0; dst < 12; dst++) {
+					TopTracesInput topTracesInput = TopTracesInput.builder().src(src).dst(dst).k(3).build();
+					assertEquals(ordering + " : " + src + "," + dst,
+							traceProcessor.findSlowestTraces(new Graph(smallInput), topTracesInput),
+							traceProcessor.findSlowestTraces(small, topTracesInput));
+				}
+			}
+			assertTrue(ordering.toString(), Arrays.equals(traceProcessor.findShortestCycles(expected),
+					traceProcessor.findShortestCycles(graph)));
+			assertTrue(ordering.toString(),
+					Arrays.equals(MinPlus.allPairsWithinHops(expected, 3), MinPlus.allPairsWithinHops(graph, 3)));
+			ImpactInput impactInput = ImpactInput.builder().services(new int[] { 3, 17, 42 }).hops(4).build();
+			ImpactAnalysis expectedImpact = traceProcessor.findImpact(expected, impactInput);
+			ImpactAnalysis impact = traceProcessor.findImpact(graph, impactInput);
+			assertTrue(ordering.toString(), Arrays.equals(expectedImpact.impactCounts(), impact.impactCounts()));
+			for (int k = 0; k < impact.numOfServices(); k++) {
+				assertTrue(ordering.toString(), Arrays.equals(expectedImpact.impacted(k), impact.impacted(k)));
+				for (int v : impact.impacted(k)) {
+					assertEquals(ordering.toString(), expectedImpact.hops(v, k), impact.hops(v, k));
+				}
+			}
+			List<Edge> edges = new ArrayList<>(graphInput.getEdges());
+			edges.set(0, new Edge(edges.get(0).from(), edges.get(0).to(), edges.get(0).weight() + 5));
+			edges.remove(edges.size() - 1);
+			GraphInput afterInput = GraphInput.builder().edges(edges).build();
+			Graph after = Graph.builder().graphInput(afterInput).backend(GraphBackend.Type.CSR).ordering(ordering)
+					.build();
+			SnapshotDiff expectedDiff = traceProcessor.diffSnapshots(expected, new Graph(afterInput));
+			SnapshotDiff diff = traceProcessor.diffSnapshots(graph, after);
+			assertEquals(ordering.toString(), expectedDiff.changedEdges(), diff.changedEdges());
+			assertTrue(ordering.toString(), Arrays.equals(expectedDiff.affectedSources(), diff.affectedSources()));
+			assertEquals(ordering.toString(), expectedDiff.regressions(), diff.regressions());
+		}
+	}
+
+	private static List<Long> latencies(List<Trace> traces) {
+		return traces.stream().map(Trace::latency).collect(Collectors.toList());
+	}
+
+	private static List<String> toStrings(Stream<int[]> traces) {
+		return traces.map(Arrays::toString).sorted().collect(Collectors.toList());
+	}
+
+	private void assertSolution(Graph graph, int i, List<String> solution) {
+		TraceProcessor traceProcessor = new TraceProcessor();
+		String error = "Error in " + filesProblems.get(i).getName() + " : Test Case - ";
+		for (int j = AVG_LATENCY_INPUT_START_INDEX; j <= AVG_LATENCY_INPUT_END_INDEX; j++) {
+			assertEquals(error + (j + 1), Long.parseLong(solution.get(j)),
+					traceProcessor.findAverageLatency(graph, tracingInputs[i].getAverageLatencyInput()[j]));
+		}
+		assertEquals(error + (UPTO_HOPS_INPUT_INDEX + 1), Long.parseLong(solution.get(UPTO_HOPS_INPUT_INDEX)),
+				traceProcessor.findUptoHops(graph, tracingInputs[i].getUptoHopsInput()));
+		assertEquals(error + (EXACT_HOPS_INPUT_INDEX + 1), Long.parseLong(solution.get(EXACT_HOPS_INPUT_INDEX)),
+				traceProcessor.findExactHops(graph, tracingInputs[i].getExactHopsInput()));
+		for (int j = SHORTEST_PATH_INPUT_START_INDEX; j <= SHORTEST_PATH_INPUT_END_INDEX; j++) {
+			assertEquals(error + (j + 1), Long.parseLong(solution.get(j)), traceProcessor.findShortestPath(graph,
+					tracingInputs[i].getShortestPathInput()[j - SHORTEST_PATH_INPUT_START_INDEX]));
+		}
+		assertEquals(error + (UPTO_LATENCY_INPUT_INDEX + 1), Long.parseLong(solution.get(UPTO_LATENCY_INPUT_INDEX)),
+				traceProcessor.findUptoLatency(graph, tracingInputs[i].getUptoLatencyInput()));
+	}
+
+	private static void assertTrace(Graph graph, int[] trace, int src, int dst) {
+		assertTrue(trace.length >= 2);
+		assertEquals(src, trace[0]);
+		assertEquals(dst, trace[trace.length - 1]);
+		assertTrue(latency(graph, trace) > 0);
+	}
+
+	private static long latency(Graph graph, int[] trace) {
+		long latency = 0;
+		for (int j = 0; j < trace.length - 1; j++) {
+			int weight = graph.getWeight(trace[j], trace[j + 1]);
+			assertTrue(weight > 0);
+			latency += weight;
+		}
+		return latency;
+	}
 }
\ No newline at end of file
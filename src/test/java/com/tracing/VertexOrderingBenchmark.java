@@ -0,0 +1,90 @@
+package com.tracing;
+
+import com.tracing.model.graph.Edge;
+import com.tracing.model.input.GraphInput;
+import com.tracing.model.input.ShortestPathInput;
+import com.tracing.model.input.UptoHopsInput;
+import com.tracing.model.output.QueryPlan;
+
+import java.util.Arrays;
+
+/**
+ * The {@code VertexOrderingBenchmark} class represents a benchmark of the
+ * queries of {@link TraceProcessor} and {@link QueryPlanner} on a large local
+ * graph with shuffled vertex ids under every {@link VertexOrdering}: a shortest
+ * path, a count of the paths within a number of hops by the bounded search and
+ * by the layered dynamic program, and an enumeration of those paths.
+ *
+ * @author Melwin Mathew
+ * @version 1.0
+ * @since 01-07-2022
+ */
+
+public class VertexOrderingBenchmark {
+	private static final int NUM_OF_VERTICES = 500000;
+	private static final int DEGREE = 8;
+	private static final int WINDOW = 64;
+	private static final int DISTANCE = 4;
+	private static final int HOPS = 6;
+	private static final int RUNS = 5;
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args arguments
+	 */
+	public static void main(String[] args) {
+		GraphInput graphInput = BenchmarkGraphs.shuffledLocal(NUM_OF_VERTICES, DEGREE, WINDOW, 42);
+		int dst = vertexAt(new Graph(graphInput), 0, DISTANCE);
+		TraceProcessor traceProcessor = new TraceProcessor();
+		ShortestPathInput shortestPathInput = ShortestPathInput.builder().src(0).dst(dst).build();
+		UptoHopsInput uptoHopsInput = UptoHopsInput.builder().src(0).dst(dst).hops(HOPS).build();
+		for (VertexOrdering.Type ordering : VertexOrdering.Type.values()) {
+			long start = System.nanoTime();
+			Graph graph = Graph.builder().graphInput(graphInput).backend(GraphBackend.Type.CSR).ordering(ordering)
+					.build();
+			double build = System.nanoTime() - start;
+			double dijkstra = BenchmarkGraphs.time(RUNS,
+					() -> traceProcessor.findShortestPath(graph, shortestPathInput));
+			double bounded = BenchmarkGraphs.time(RUNS, () -> new QueryPlanner(graph, QueryPlan.Strategy.BOUNDED_SEARCH)
+					.uptoHops(uptoHopsInput).getResult());
+			double layered = BenchmarkGraphs.time(RUNS,
+					() -> new QueryPlanner(graph, QueryPlan.Strategy.LAYERED_DP).uptoHops(uptoHopsInput).getResult());
+			double enumerate = BenchmarkGraphs.time(RUNS, () -> traceProcessor
+					.enumerateUptoHops(graph, uptoHopsInput, TraceSpliterator.Order.DEPTH_FIRST).count());
+			System.out.printf("%-22s build=%.0fms dijkstra=%.1fms bounded=%.1fms layered=%.1fms enumerate=%.1fms%n",
+					ordering, build / 1e6, dijkstra / 1e6, bounded / 1e6, layered / 1e6, enumerate / 1e6);
+		}
+	}
+
+	/**
+	 * Returns the first vertex found at {@code distance} hops from vertex
+	 * {@code src} by a breadth first search.
+	 *
+	 * @param graph    graph
+	 * @param src      source vertex
+	 * @param distance number of hops
+	 * @return vertex at the given number of hops
+	 */
+	private static int vertexAt(Graph graph, int src, int distance) {
+		int[] distTo = new int[graph.getNumOfVertices()];
+		Arrays.fill(distTo, -1);
+		int[] vertQ = new int[distTo.length];
+		int head = 0, tail = 0;
+		distTo[src] = 0;
+		vertQ[tail++] = src;
+		while (head < tail) {
+			int v = vertQ[head++];
+			if (distTo[v] == distance) {
+				return v;
+			}
+			for (Edge e : graph.adj(v)) {
+				if (distTo[e.to()] < 0) {
+					distTo[e.to()] = distTo[v] + 1;
+					vertQ[tail++] = e.to();
+				}
+			}
+		}
+		return src;
+	}
+}